@@ -1,9 +1,17 @@
 import graph.scc.SCCFinder;
-import graph.topo.TopologicalSort;
+import graph.scc.SCCResult;
+import graph.scc.TopologicalCondensation;
+import graph.scc.WeightAggregate;
 import graph.dagsp.DAGShortestPath;
-import graph.model.Graph;
-import model.GraphData;
+import graph.dagsp.PertScheduler;
+import graph.dagsp.Schedule;
+import graph.model.IntGraph;
+import graph.reorder.VertexOrdering;
+import graph.topo.TopologicalLevels;
+import graph.topo.TopologicalSort;
+import model.LoadedGraph;
 import metrics.SimpleMetrics;
+import utils.BinaryGraphLoader;
 import utils.JsonGraphLoader;
 import utils.GraphGenerator;
 
@@ -23,7 +31,13 @@ public class Main {
             } else if (args[0].equals("--full-analysis")) {
                 runComprehensiveAnalysis();
                 return;
-            } else if (args[0].endsWith(".json")) {
+            } else if (args[0].equals("--convert") && args.length >= 3) {
+                convertToBinary(args[1], args[2]);
+                return;
+            } else if (args[0].equals("--reorder") && args.length >= 3) {
+                runSingleAnalysis(args[2], VertexOrdering.Strategy.valueOf(args[1].toUpperCase()));
+                return;
+            } else if (args[0].endsWith(".json") || args[0].endsWith(".bin")) {
                 runSingleAnalysis(args[0]);
                 return;
             }
@@ -59,10 +73,9 @@ public class Main {
                     System.out.println("ANALYZING: " + dataset);
                     System.out.println("=".repeat(70));
 
-                    GraphData graphData = JsonGraphLoader.loadGraphData(dataset);
-                    Graph graph = JsonGraphLoader.convertToGraph(graphData);
+                    LoadedGraph loaded = loadDataset(dataset);
 
-                    AnalysisResult result = runAlgorithmPipeline(graphData, graph, dataset);
+                    AnalysisResult result = runAlgorithmPipeline(loaded, dataset);
                     results.put(dataset, result);
 
                 } catch (Exception e) {
@@ -79,6 +92,10 @@ public class Main {
     }
 
     public static void runSingleAnalysis(String filePath) {
+        runSingleAnalysis(filePath, null);
+    }
+
+    public static void runSingleAnalysis(String filePath, VertexOrdering.Strategy reorder) {
         try {
             System.out.println("=== Smart City Scheduling Analysis ===\n");
 
@@ -88,11 +105,9 @@ public class Main {
                 return;
             }
 
-            GraphData graphData = JsonGraphLoader.loadGraphData(filePath);
-            Graph graph = JsonGraphLoader.convertToGraph(graphData);
-
-            printGraphSummary(graphData, filePath);
-            AnalysisResult result = runAlgorithmPipeline(graphData, graph, filePath);
+            LoadedGraph loaded = loadDataset(filePath);
+            printGraphSummary(loaded, filePath);
+            AnalysisResult result = analyze(loaded, reorder, filePath);
             results.put(filePath, result);
 
         } catch (Exception e) {
@@ -101,6 +116,39 @@ public class Main {
         }
     }
 
+    public static void convertToBinary(String jsonPath, String binaryPath) {
+        try {
+            BinaryGraphLoader.convertFromJson(jsonPath, binaryPath);
+            System.out.println("Converted " + jsonPath + " to " + binaryPath);
+        } catch (Exception e) {
+            System.err.println("Error converting " + jsonPath + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Runs the pipeline in a locality-friendly id space when reorder is set; everything
+    // printed or stored is mapped back to the input ids
+    static AnalysisResult analyze(LoadedGraph loaded, VertexOrdering.Strategy reorder, String datasetName) {
+        if (reorder == null) {
+            return runAlgorithmPipeline(loaded, datasetName);
+        }
+        IntGraph graph = loaded.getGraph();
+        VertexOrdering ordering = VertexOrdering.compute(graph, reorder);
+        IntGraph relabeled = ordering.apply(graph);
+        System.out.printf("Relabeled vertices with %s ordering (mean edge span %.1f -> %.1f)\n\n", reorder,
+                VertexOrdering.averageEdgeSpan(graph), VertexOrdering.averageEdgeSpan(relabeled));
+        LoadedGraph moved = new LoadedGraph(relabeled, ordering.toRelabeled(loaded.getSource()),
+                loaded.isDirected(), loaded.getWeightModel());
+        return runAlgorithmPipeline(moved, ordering, datasetName);
+    }
+
+    private static LoadedGraph loadDataset(String filePath) throws java.io.IOException {
+        if (filePath.endsWith(".bin")) {
+            return BinaryGraphLoader.load(filePath);
+        }
+        return JsonGraphLoader.loadGraph(filePath);
+    }
+
     public static void runComprehensiveAnalysis() {
         System.out.println("=== COMPREHENSIVE DATASET ANALYSIS ===\n");
 
@@ -127,10 +175,9 @@ public class Main {
                     System.out.println("ANALYZING: " + dataset);
                     System.out.println("=".repeat(70));
 
-                    GraphData graphData = JsonGraphLoader.loadGraphData(dataset);
-                    Graph graph = JsonGraphLoader.convertToGraph(graphData);
+                    LoadedGraph loaded = loadDataset(dataset);
 
-                    AnalysisResult result = runAlgorithmPipeline(graphData, graph, dataset);
+                    AnalysisResult result = runAlgorithmPipeline(loaded, dataset);
                     results.put(dataset, result);
 
                 } catch (Exception e) {
@@ -144,75 +191,103 @@ public class Main {
         generateComparativeReport();
     }
 
-    private static AnalysisResult runAlgorithmPipeline(GraphData graphData, Graph graph, String datasetName) {
+    private static AnalysisResult runAlgorithmPipeline(LoadedGraph loaded, String datasetName) {
+        return runAlgorithmPipeline(loaded, VertexOrdering.identity(loaded.getGraph().getVertexCount()), datasetName);
+    }
+
+    // ordering maps the ids of loaded back to the input ids
+    private static AnalysisResult runAlgorithmPipeline(LoadedGraph loaded, VertexOrdering ordering,
+                                                       String datasetName) {
+        IntGraph graph = loaded.getGraph();
         AnalysisResult result = new AnalysisResult();
         result.datasetName = datasetName;
-        result.vertexCount = graphData.getN();
-        result.edgeCount = graphData.getEdges().size();
+        result.vertexCount = graph.getVertexCount();
+        result.edgeCount = graph.getEdgeCount();
 
         // 1. Strongly Connected Components
         System.out.println("1. STRONGLY CONNECTED COMPONENTS");
         SimpleMetrics sccMetrics = new SimpleMetrics();
         SCCFinder sccFinder = new SCCFinder(sccMetrics);
 
-        List<List<Integer>> sccs = sccFinder.findSCCsTarjan(graph);
+        // One Tarjan pass yields the components, the condensation and its topological numbering
+        // (heaviest parallel edge, so the critical path, top-K and schedule reflect real durations)
+        TopologicalCondensation fused = sccFinder.condenseTopologically(graph, WeightAggregate.MAX);
+        SCCResult sccs = fused.getComponents();
         result.sccCount = sccs.size();
         result.sccTime = sccMetrics.getElapsedTime();
         result.sccMetrics = sccMetrics;
+        int[] leaders = componentLeaders(sccs, ordering);
+        result.sccLeaders = ordering.valuesToOriginal(perVertex(sccs, leaders));
+
+        // Tarjan never reads in-neighbors, so a lazily built transpose is never allocated
+        result.reverseBytesSaved = graph.hasReverseAdjacency() ? 0 : reverseAdjacencyBytes(graph);
 
         System.out.println("Found " + sccs.size() + " SCCs");
         printSCCDistribution(sccs);
         sccMetrics.printMetrics();
+        if (result.reverseBytesSaved > 0) {
+            System.out.println("Reverse adjacency not built: " + result.reverseBytesSaved + " bytes saved");
+        }
 
         // 2. Condensation Graph
-        Graph condensation = sccFinder.buildCondensationGraph(graph, sccs);
+        IntGraph condensation = fused.getCondensation();
         result.condensationSize = condensation.getVertexCount();
         System.out.println("Condensed to " + condensation.getVertexCount() + " components\n");
 
-        // 3. Topological Sort
+        // 3. Topological Sort: component ids already are the order, so no Kahn pass is needed
         System.out.println("2. TOPOLOGICAL SORT");
         SimpleMetrics topoMetrics = new SimpleMetrics();
-        TopologicalSort topoSort = new TopologicalSort(topoMetrics);
-
-        List<Integer> topoOrder;
-        try {
-            topoOrder = topoSort.topologicalOrderKahn(condensation);
-            System.out.println("Topological order: " + topoOrder);
-            result.topoValid = true;
-        } catch (IllegalArgumentException e) {
-            System.out.println("Cycle detected: " + e.getMessage());
-            topoOrder = topoSort.topologicalOrderDFS(condensation);
-            System.out.println("DFS order (may contain cycles): " + topoOrder);
-            result.topoValid = false;
-        }
+        System.out.println("Topological order: component ids 0.." + (condensation.getVertexCount() - 1) +
+                " (numbered by Tarjan)");
+        // Levels only feed the schedule summary: one id-order sweep, timed apart from the order
+        TopologicalLevels levels = new TopologicalSort(new SimpleMetrics()).topologicalLevels(condensation);
+        System.out.println("Parallel levels: " + levels.levelCount() + " (max width " + levels.width() + ")\n");
+        result.topoValid = true;
         result.topoTime = topoMetrics.getElapsedTime();
         result.topoMetrics = topoMetrics;
-        topoMetrics.printMetrics();
 
         // 4. Shortest and Longest Paths
-        if (result.topoValid && topoOrder.size() == condensation.getVertexCount()) {
+        if (result.topoValid) {
             System.out.println("3. SHORTEST AND LONGEST PATHS");
             SimpleMetrics spMetrics = new SimpleMetrics();
             DAGShortestPath shortestPath = new DAGShortestPath(spMetrics);
 
-            int[] vertexToSCC = mapVerticesToSCC(sccs, graph.getVertexCount());
-            int sourceComponent = vertexToSCC[graphData.getSource()];
-            result.sourceComponent = sourceComponent;
+            int sourceComponent = sccs.componentOf(loaded.getSource());
+            result.sourceComponent = leaders[sourceComponent];
 
-            System.out.println("Source vertex " + graphData.getSource() + " is in component " + sourceComponent);
+            System.out.println("Source vertex " + ordering.toOriginal(loaded.getSource()) +
+                    " is in the component of vertex " + result.sourceComponent +
+                    " (" + sccs.componentSize(sourceComponent) + " vertices)");
 
-            // Shortest paths
-            int[] shortestDist = shortestPath.shortestPaths(condensation, topoOrder, sourceComponent);
+            // Shortest paths take the cheapest parallel edge; same component ids, so still topological
+            IntGraph cheapest = sccFinder.buildCondensationGraph(graph, sccs, WeightAggregate.MIN);
+            int[] shortestDist = shortestPath.shortestPaths(cheapest, sourceComponent);
             result.reachableComponents = countReachable(shortestDist);
+            result.shortestDistances = ordering.valuesToOriginal(perVertex(sccs, shortestDist));
 
             // Longest paths and critical path
             DAGShortestPath.CriticalPathResult criticalPath =
-                    shortestPath.findCriticalPath(condensation, topoOrder, sourceComponent);
+                    shortestPath.findCriticalPath(condensation, sourceComponent);
             result.criticalPathLength = criticalPath.getLength();
+            result.criticalPath = new ArrayList<>(criticalPath.getPath().size());
+            for (int component : criticalPath.getPath()) {
+                result.criticalPath.add(leaders[component]);
+            }
             result.spTime = spMetrics.getElapsedTime();
             result.spMetrics = spMetrics;
 
             System.out.println("Critical path length: " + criticalPath.getLength());
+            // Chains close behind the critical one; separate metrics keep the timings above comparable
+            List<DAGShortestPath.CriticalPathResult> nearCritical =
+                    new DAGShortestPath(new SimpleMetrics()).findTopCriticalPaths(condensation, sourceComponent, 3);
+            StringJoiner lengths = new StringJoiner(", ");
+            for (DAGShortestPath.CriticalPathResult path : nearCritical) {
+                lengths.add(String.valueOf(path.getLength()));
+            }
+            System.out.println("Top path lengths to a sink: " + lengths);
+            Schedule schedule = new PertScheduler(new SimpleMetrics()).schedule(condensation);
+            System.out.println("Schedule: project length " + schedule.getProjectLength() + ", " +
+                    schedule.getCriticalCount() + "/" + condensation.getVertexCount() + " components critical");
             System.out.println("Reachable components: " + result.reachableComponents + "/" + condensation.getVertexCount());
             spMetrics.printMetrics();
 
@@ -227,38 +302,37 @@ public class Main {
         return result;
     }
 
-    private static void printGraphSummary(GraphData graphData, String filePath) {
+    private static void printGraphSummary(LoadedGraph loaded, String filePath) {
+        IntGraph graph = loaded.getGraph();
+        int n = graph.getVertexCount();
         System.out.println("Dataset: " + filePath);
         System.out.println("Graph Summary:");
-        System.out.println("- Vertices: " + graphData.getN());
-        System.out.println("- Edges: " + graphData.getEdges().size());
-        System.out.println("- Source: " + graphData.getSource());
-        System.out.println("- Weight Model: " + graphData.getWeightModel());
+        System.out.println("- Vertices: " + n);
+        System.out.println("- Edges: " + graph.getEdgeCount());
+        System.out.println("- Source: " + loaded.getSource());
+        System.out.println("- Weight Model: " + loaded.getWeightModel());
 
-        double density = (double) graphData.getEdges().size() / (graphData.getN() * (graphData.getN() - 1));
+        double density = (double) graph.getEdgeCount() / ((double) n * (n - 1));
         System.out.printf("- Density: %.3f (%s)\n", density, getDensityType(density));
 
-        if (graphData.getN() <= 15) {
+        if (n <= 15) {
             System.out.println("\nGraph Structure:");
-            for (GraphData.Edge edge : graphData.getEdges()) {
-                System.out.println("  " + edge.getU() + " → " + edge.getV() + " (w=" + edge.getW() + ")");
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.outDegree(u); i < degree; i++) {
+                    System.out.println("  " + u + " → " + graph.neighborAt(u, i) + " (w=" + graph.weightAt(u, i) + ")");
+                }
             }
         }
         System.out.println();
     }
 
-    private static void printSCCDistribution(List<List<Integer>> sccs) {
-        Map<Integer, Integer> sizeDistribution = new HashMap<>();
-        for (List<Integer> scc : sccs) {
-            int size = scc.size();
-            sizeDistribution.put(size, sizeDistribution.getOrDefault(size, 0) + 1);
-        }
-
+    private static void printSCCDistribution(SCCResult sccs) {
+        int[] histogram = sccs.sizeHistogram();
         System.out.print("SCC Size Distribution: ");
-        List<Integer> sizes = new ArrayList<>(sizeDistribution.keySet());
-        Collections.sort(sizes);
-        for (int size : sizes) {
-            System.out.print(size + "(" + sizeDistribution.get(size) + ") ");
+        for (int size = 1; size < histogram.length; size++) {
+            if (histogram[size] > 0) {
+                System.out.print(size + "(" + histogram[size] + ") ");
+            }
         }
         System.out.println();
     }
@@ -409,14 +483,29 @@ public class Main {
         return "Dense";
     }
 
-    private static int[] mapVerticesToSCC(List<List<Integer>> sccs, int vertexCount) {
-        int[] vertexToSCC = new int[vertexCount];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToSCC[vertex] = i;
-            }
+    // Heap size of a reverse CSR (offsets + sources) for this graph
+    private static long reverseAdjacencyBytes(IntGraph graph) {
+        return ((long) graph.getVertexCount() + 1 + graph.getEdgeCount()) * Integer.BYTES;
+    }
+
+    // Smallest input id in each component: a name for it that no relabeling or DFS order changes
+    private static int[] componentLeaders(SCCResult sccs, VertexOrdering ordering) {
+        int[] leaders = new int[sccs.size()];
+        Arrays.fill(leaders, Integer.MAX_VALUE);
+        for (int v = 0; v < sccs.vertexCount(); v++) {
+            int c = sccs.componentOf(v);
+            leaders[c] = Math.min(leaders[c], ordering.toOriginal(v));
+        }
+        return leaders;
+    }
+
+    // Spreads a per-component value over the component's vertices
+    private static int[] perVertex(SCCResult sccs, int[] valueByComponent) {
+        int[] values = new int[sccs.vertexCount()];
+        for (int v = 0; v < values.length; v++) {
+            values[v] = valueByComponent[sccs.componentOf(v)];
         }
-        return vertexToSCC;
+        return values;
     }
 
     private static int countReachable(int[] distances) {
@@ -436,15 +525,21 @@ public class Main {
         int sccCount;
         int condensationSize;
         boolean topoValid;
+        // Components are named by their smallest input vertex id, and vertex-indexed
+        // arrays use input ids, so results do not depend on --reorder
+        int[] sccLeaders;
         int sourceComponent;
         int reachableComponents;
         int criticalPathLength;
         long sccTime;
         long topoTime;
         long spTime;
+        // Heap a transpose would have taken, had the pipeline needed in-neighbors
+        long reverseBytesSaved;
         SimpleMetrics sccMetrics;
         SimpleMetrics topoMetrics;
         SimpleMetrics spMetrics;
+        // Per vertex: shortest distance of its component from the source's component
         int[] shortestDistances;
         List<Integer> criticalPath;
     }
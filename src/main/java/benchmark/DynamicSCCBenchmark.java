@@ -0,0 +1,95 @@
+package benchmark;
+
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.scc.DynamicSCC;
+import graph.scc.SCCFinder;
+import metrics.NoOpMetrics;
+import utils.GraphGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays random local edge insertions and deletions on a street grid and
+ * compares DynamicSCC update latency with rerunning Tarjan plus the
+ * condensation build after every change.
+ *
+ * Usage: DynamicSCCBenchmark [width] [height] [updates] [backEdgeProbability]
+ */
+public class DynamicSCCBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int updates = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        double backEdges = args.length > 3 ? Double.parseDouble(args[3]) : 0.05;
+
+        CSRGraph grid = new GraphGenerator().generateCityGrid(width, height, backEdges, true);
+        Graph reference = new Graph(grid.getVertexCount());
+        for (int u = 0; u < grid.getVertexCount(); u++) {
+            for (int i = 0, degree = grid.outDegree(u); i < degree; i++) {
+                reference.addEdge(u, grid.neighborAt(u, i), grid.weightAt(u, i));
+            }
+        }
+        DynamicSCC dynamic = new DynamicSCC(grid, new NoOpMetrics());
+        SCCFinder finder = new SCCFinder(new NoOpMetrics());
+        System.out.printf("Street grid %dx%d: %,d vertices, %,d edges, %,d components%n%n",
+                width, height, grid.getVertexCount(), grid.getEdgeCount(), dynamic.componentCount());
+
+        Random random = new Random(3);
+        long[] incremental = new long[updates];
+        long[] recompute = new long[updates];
+        int merges = 0;
+        int splits = 0;
+        for (int k = 0; k < updates; k++) {
+            int u = random.nextInt(grid.getVertexCount());
+            int before = dynamic.componentCount();
+            long start = System.nanoTime();
+            if (random.nextBoolean() && reference.outDegree(u) > 0) {
+                int v = reference.neighborAt(u, random.nextInt(reference.outDegree(u)));
+                dynamic.deleteEdge(u, v);
+                incremental[k] = System.nanoTime() - start;
+                reference.removeEdge(u, v);
+            } else {
+                // Short edge in any direction, like the grid's own back edges
+                int v = Math.floorMod(u + (random.nextBoolean() ? 1 : width) * (random.nextBoolean() ? 1 : -1),
+                        grid.getVertexCount());
+                dynamic.insertEdge(u, v, 1);
+                incremental[k] = System.nanoTime() - start;
+                reference.addEdge(u, v, 1);
+            }
+            if (dynamic.componentCount() < before) {
+                merges++;
+            } else if (dynamic.componentCount() > before) {
+                splits++;
+            }
+
+            start = System.nanoTime();
+            List<List<Integer>> sccs = finder.findSCCsTarjan(reference);
+            finder.buildCondensationGraph(reference, sccs);
+            recompute[k] = System.nanoTime() - start;
+            if (sccs.size() != dynamic.componentCount()) {
+                throw new IllegalStateException("Update " + k + ": recomputation found " + sccs.size() +
+                        " components, incremental state has " + dynamic.componentCount());
+            }
+        }
+
+        System.out.printf("%,d updates (%d merging, %d splitting), %,d components at the end%n%n",
+                updates, merges, splits, dynamic.componentCount());
+        System.out.println("+--------------+------------+------------+------------+");
+        System.out.println("| Method       | Median us  | p99 us     | Max us     |");
+        System.out.println("+--------------+------------+------------+------------+");
+        row("incremental", incremental);
+        row("recompute", recompute);
+        System.out.println("+--------------+------------+------------+------------+");
+    }
+
+    private static void row(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("| %-12s | %10.1f | %10.1f | %10.1f |%n", name, sorted[sorted.length / 2] / 1e3,
+                sorted[(int) (sorted.length * 0.99)] / 1e3, sorted[sorted.length - 1] / 1e3);
+    }
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import graph.model.Graph;
+import graph.topo.DynamicTopologicalOrder;
+import graph.topo.TopologicalSort;
+import metrics.NoOpMetrics;
+
+import java.util.Random;
+
+/**
+ * Inserts random dependencies into a random DAG and compares insertion
+ * throughput of DynamicTopologicalOrder with rerunning Kahn's algorithm
+ * after every insertion. New edges mostly follow a hidden ranking, so most
+ * are accepted, some force a reorder and a few would close a cycle.
+ *
+ * Usage: DynamicTopoBenchmark [vertices] [initialEdgesPerVertex] [insertions]
+ */
+public class DynamicTopoBenchmark {
+    // Kahn reruns cost a full pass each, so only this many are timed
+    private static final int RECOMPUTE_SAMPLES = 200;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int insertions = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+
+        Random random = new Random(5);
+        int[] rank = new int[n];
+        for (int v = 0; v < n; v++) {
+            rank[v] = v;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = rank[i];
+            rank[i] = rank[j];
+            rank[j] = tmp;
+        }
+        // Edges always go from lower to higher rank, so the graph is acyclic
+        Graph initial = new Graph(n);
+        for (int u = 0; u < n; u++) {
+            for (int k = 0; k < degree; k++) {
+                int v = random.nextInt(n);
+                if (rank[u] < rank[v]) {
+                    initial.addEdge(u, v, 1);
+                } else if (rank[v] < rank[u]) {
+                    initial.addEdge(v, u, 1);
+                }
+            }
+        }
+
+        DynamicTopologicalOrder dynamic = new DynamicTopologicalOrder(initial, new NoOpMetrics());
+        Graph reference = new Graph(n);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < initial.outDegree(u); i++) {
+                reference.addEdge(u, initial.neighborAt(u, i), 1);
+            }
+        }
+        System.out.printf("Random DAG: %,d vertices, %,d edges, %,d insertions%n%n",
+                n, initial.getEdgeCount(), insertions);
+
+        int[] byRank = new int[n];
+        for (int v = 0; v < n; v++) {
+            byRank[rank[v]] = v;
+        }
+        int[] from = new int[insertions];
+        int[] to = new int[insertions];
+        for (int k = 0; k < insertions; k++) {
+            int u = random.nextInt(n);
+            // Local edges in rank order, with an occasional edge against it
+            int spread = Math.max(1, n / 100);
+            int target = byRank[Math.min(n - 1, rank[u] + 1 + random.nextInt(spread))];
+            boolean against = random.nextInt(20) == 0;
+            from[k] = against ? target : u;
+            to[k] = against ? u : target;
+        }
+
+        int accepted = 0;
+        long start = System.nanoTime();
+        for (int k = 0; k < insertions; k++) {
+            if (dynamic.insertEdge(from[k], to[k], 1)) {
+                accepted++;
+            }
+        }
+        long dynamicNanos = System.nanoTime() - start;
+
+        TopologicalSort kahn = new TopologicalSort(new NoOpMetrics());
+        int samples = Math.min(RECOMPUTE_SAMPLES, insertions);
+        long recomputeNanos = 0;
+        for (int k = 0; k < samples; k++) {
+            reference.addEdge(from[k], to[k], 1);
+            start = System.nanoTime();
+            try {
+                kahn.topologicalOrderKahn(reference);
+            } catch (IllegalArgumentException cycle) {
+                reference.removeEdge(from[k], to[k]);
+            }
+            recomputeNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("%,d of %,d insertions accepted, %,d rejected as cycles%n%n",
+                accepted, insertions, insertions - accepted);
+        System.out.println("+--------------+----------------+------------+");
+        System.out.println("| Method       | Inserts/second | Mean us    |");
+        System.out.println("+--------------+----------------+------------+");
+        row("pearce-kelly", insertions, dynamicNanos);
+        row("rerun kahn", samples, recomputeNanos);
+        System.out.println("+--------------+----------------+------------+");
+    }
+
+    private static void row(String name, int operations, long nanos) {
+        System.out.printf("| %-12s | %,14.0f | %10.1f |%n", name, operations / (nanos / 1e9),
+                nanos / 1e3 / operations);
+    }
+}
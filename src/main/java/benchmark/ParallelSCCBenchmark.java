@@ -0,0 +1,87 @@
+package benchmark;
+
+import graph.model.CSRGraph;
+import graph.scc.SCCFinder;
+import metrics.NoOpMetrics;
+import utils.GraphGenerator;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares the fork-join SCC decomposition against sequential Tarjan on
+ * generated street grids with few, some and many back edges.
+ *
+ * Usage: ParallelSCCBenchmark [width] [height] [repetitions] [maxParallelism]
+ *
+ * Parallelism doubles from 1 up to maxParallelism (default: available cores).
+ * Speedup is Tarjan's best time divided by the parallel best time. Rows with
+ * more workers than cores are marked with '*': they share cores, so they
+ * show scheduling overhead rather than scaling.
+ */
+public class ParallelSCCBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxParallelism = args.length > 3 ? Integer.parseInt(args[3]) : cores;
+
+        GraphGenerator generator = new GraphGenerator();
+        SCCFinder finder = new SCCFinder(new NoOpMetrics());
+        System.out.println("Street grid " + width + "x" + height + ", " + cores + " available core(s)");
+        System.out.println("+--------------+---------+-------------+-----+-----------+---------+");
+        System.out.println("| Back edges   | SCCs    | Largest     | P   | Time ms   | Speedup |");
+        System.out.println("+--------------+---------+-------------+-----+-----------+---------+");
+
+        for (double backEdges : new double[]{0.0, 0.05, 0.3}) {
+            CSRGraph grid = generator.generateCityGrid(width, height, 0.3, false);
+            if (backEdges > 0) {
+                grid = generator.generateCityGrid(width, height, backEdges, true);
+            }
+            grid.inDegree(0);
+
+            List<List<Integer>> reference = null;
+            long tarjanBest = Long.MAX_VALUE;
+            for (int r = 0; r < repetitions; r++) {
+                long start = System.nanoTime();
+                reference = finder.findSCCsTarjan(grid);
+                tarjanBest = Math.min(tarjanBest, System.nanoTime() - start);
+            }
+            int largest = 0;
+            for (List<Integer> scc : reference) {
+                largest = Math.max(largest, scc.size());
+            }
+            String label = String.format("%.2f", backEdges);
+            row(label, reference.size(), largest, "T", tarjanBest, tarjanBest);
+
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism <<= 1) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    long best = Long.MAX_VALUE;
+                    List<List<Integer>> sccs = null;
+                    for (int r = 0; r < repetitions; r++) {
+                        long start = System.nanoTime();
+                        sccs = finder.findSCCsParallel(grid, pool);
+                        best = Math.min(best, System.nanoTime() - start);
+                    }
+                    if (sccs.size() != reference.size()) {
+                        throw new IllegalStateException("Parallel run found " + sccs.size() +
+                                " components, Tarjan found " + reference.size());
+                    }
+                    row(label, sccs.size(), largest, parallelism + (parallelism > cores ? "*" : ""), best,
+                            tarjanBest);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+        System.out.println("+--------------+---------+-------------+-----+-----------+---------+");
+    }
+
+    private static void row(String label, int sccs, int largest, String parallelism, long nanos, long tarjanNanos) {
+        System.out.printf("| %-12s | %7d | %11d | %3s | %9.1f | %7.2f |%n", label, sccs, largest, parallelism,
+                nanos / 1e6, (double) tarjanNanos / nanos);
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import graph.dagsp.DAGShortestPath;
+import graph.model.CSRGraph;
+import graph.reorder.VertexOrdering;
+import graph.scc.SCCFinder;
+import graph.topo.TopologicalSort;
+import metrics.Metrics;
+import metrics.NoOpMetrics;
+import utils.GraphGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how vertex relabeling affects the analysis pipeline on a large
+ * generated street grid whose ids have been randomly scrambled.
+ *
+ * Usage: ReorderingBenchmark [width] [height] [repetitions]
+ *
+ * The JVM cannot read hardware counters, so the table reports wall time and
+ * the mean edge span |u - v| as a locality proxy. For real cache-miss counts
+ * run the same class under {@code perf stat -e cache-misses,cache-references}.
+ */
+public class ReorderingBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        // The recursive DFS passes need a deep stack on large inputs
+        Thread worker = new Thread(null, () -> run(width, height, repetitions), "reorder-benchmark", 1L << 30);
+        worker.start();
+        worker.join();
+    }
+
+    private static void run(int width, int height, int repetitions) {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(width, height, 0.3, false);
+        VertexOrdering scramble = VertexOrdering.random(grid.getVertexCount(), 7);
+        CSRGraph input = scramble.apply(grid);
+        int source = scramble.toRelabeled(0);
+
+        System.out.printf("Street grid %dx%d: %,d vertices, %,d edges, ids scrambled%n%n",
+                width, height, input.getVertexCount(), input.getEdgeCount());
+        System.out.println("+-----------+------------+-------------+-----------+-----------+-----------+");
+        System.out.println("| Ordering  | Reorder ms | Edge span   | SCC ms    | Topo ms   | SP ms     |");
+        System.out.println("+-----------+------------+-------------+-----------+-----------+-----------+");
+
+        int[] baseline = null;
+        report("input", 0, input, source, repetitions);
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            long start = System.nanoTime();
+            VertexOrdering ordering = VertexOrdering.compute(input, strategy);
+            CSRGraph relabeled = ordering.apply(input);
+            double reorderMs = (System.nanoTime() - start) / 1e6;
+
+            int[] distances = report(strategy.name(), reorderMs, relabeled, ordering.toRelabeled(source), repetitions);
+            int[] original = ordering.valuesToOriginal(distances);
+            if (baseline == null) {
+                baseline = original;
+            } else if (!Arrays.equals(baseline, original)) {
+                throw new IllegalStateException("Distances differ after mapping " + strategy + " back");
+            }
+        }
+        System.out.println("+-----------+------------+-------------+-----------+-----------+-----------+");
+    }
+
+    private static int[] report(String name, double reorderMs, CSRGraph graph, int source, int repetitions) {
+        Metrics metrics = new NoOpMetrics();
+        SCCFinder sccFinder = new SCCFinder(metrics);
+        TopologicalSort topoSort = new TopologicalSort(metrics);
+        DAGShortestPath shortestPath = new DAGShortestPath(metrics);
+
+        long sccBest = Long.MAX_VALUE;
+        long topoBest = Long.MAX_VALUE;
+        long spBest = Long.MAX_VALUE;
+        int[] distances = null;
+        for (int r = 0; r < repetitions; r++) {
+            long t0 = System.nanoTime();
+            sccFinder.findSCCsTarjan(graph);
+            long t1 = System.nanoTime();
+            List<Integer> order = topoSort.topologicalOrderKahn(graph);
+            long t2 = System.nanoTime();
+            distances = shortestPath.shortestPaths(graph, order, source);
+            long t3 = System.nanoTime();
+            sccBest = Math.min(sccBest, t1 - t0);
+            topoBest = Math.min(topoBest, t2 - t1);
+            spBest = Math.min(spBest, t3 - t2);
+        }
+
+        System.out.printf("| %-9s | %10.1f | %11.1f | %9.1f | %9.1f | %9.1f |%n", name, reorderMs,
+                VertexOrdering.averageEdgeSpan(graph), sccBest / 1e6, topoBest / 1e6, spBest / 1e6);
+        return distances;
+    }
+}
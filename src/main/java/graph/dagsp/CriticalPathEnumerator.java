@@ -0,0 +1,273 @@
+package graph.dagsp;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+import metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazily lists source-to-sink paths of a DAG from longest to shortest,
+ * following Eppstein's k-shortest-paths construction.
+ *
+ * A backward pass gives every vertex its longest completion to a sink and
+ * the out-edge that achieves it. Following those best edges from the
+ * source is the critical path; any other path is that walk with some
+ * detours ("sidetracks"), each costing the slack between the best
+ * completion and the edge taken. Every vertex keeps its sidetracks sorted
+ * by slack, and a persistent leftist heap over the cheapest sidetrack of
+ * each vertex on its best walk, sharing structure with the heap of the
+ * next vertex on that walk. A candidate path is its latest sidetrack plus
+ * the path it branched from. It has at most four successors: the two
+ * heap children and the next sidetrack at the same vertex (replacing its
+ * latest sidetrack), and the root of the heap after that sidetrack
+ * (adding one more). Popping candidates by total slack therefore yields
+ * paths in non-increasing length while the queue grows by O(1) per path.
+ * Setup is O(E log E + V log V); each path then costs O(log K) plus its
+ * own length. Paths are distinct as edge sequences.
+ */
+final class CriticalPathEnumerator implements Iterator<DAGShortestPath.CriticalPathResult> {
+    private static final int NO_EDGE = -1;
+    private static final int NO_NODE = -1;
+
+    private final IntGraph graph;
+    private final Metrics metrics;
+    private final int source;
+    // Longest distance from each vertex to any sink, and the out-edge index achieving it
+    private final int[] tail;
+    private final int[] bestEdge;
+    // Sidetracks of each vertex as out-edge indices, sorted by slack
+    private final int[] sideOffsets;
+    private final int[] sideEdges;
+    private final int[] sideSlacks;
+    // Persistent leftist heap nodes; each holds the cheapest sidetrack of one vertex
+    private final IntArrayList nodeVertex = new IntArrayList();
+    private final IntArrayList nodeLeft = new IntArrayList();
+    private final IntArrayList nodeRight = new IntArrayList();
+    private final IntArrayList nodeRank = new IntArrayList();
+    // Heap over the sidetracks along each vertex's best walk
+    private final int[] walkHeap;
+    private final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+
+    // One path: its parent plus the sidetrack from -(side)-> to that leaves the parent's best walk.
+    // node is the heap node holding the sidetrack, or NO_NODE for a later entry of from's list.
+    private static final class Candidate implements Comparable<Candidate> {
+        final Candidate parent;
+        final int from;
+        final int side;
+        final int node;
+        final int to;
+        final long slack;
+
+        Candidate(Candidate parent, int from, int side, int node, int to, long slack) {
+            this.parent = parent;
+            this.from = from;
+            this.side = side;
+            this.node = node;
+            this.to = to;
+            this.slack = slack;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Long.compare(slack, other.slack);
+        }
+    }
+
+    // order lists the vertices topologically; null means id order
+    CriticalPathEnumerator(IntGraph graph, int[] order, int source, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.source = source;
+        int n = graph.getVertexCount();
+        this.tail = new int[n];
+        this.bestEdge = new int[n];
+        this.sideOffsets = new int[n + 1];
+        this.walkHeap = new int[n];
+
+        // Rows are read through a cursor; i counts positions so bestEdge and sidetracks keep indices
+        NeighborCursor cursor = graph.neighborCursor();
+        long edgeChecks = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            int v = order == null ? k : order[k];
+            int best = 0;
+            int bestIndex = NO_EDGE;
+            cursor.reset(v);
+            for (int i = 0; cursor.next(); i++) {
+                int w = cursor.target();
+                edgeChecks++;
+                if (order == null && w <= v) {
+                    throw new IllegalArgumentException("Graph is not numbered in topological order: edge " +
+                            v + "->" + w);
+                }
+                int completion = cursor.weight() + tail[w];
+                if (bestIndex == NO_EDGE || completion > best) {
+                    best = completion;
+                    bestIndex = i;
+                }
+            }
+            tail[v] = best;
+            bestEdge[v] = bestIndex;
+        }
+
+        for (int v = 0; v < n; v++) {
+            sideOffsets[v + 1] = sideOffsets[v] + Math.max(0, graph.outDegree(v) - 1);
+        }
+        this.sideEdges = new int[sideOffsets[n]];
+        this.sideSlacks = new int[sideOffsets[n]];
+        long[] row = new long[16];
+        for (int v = 0; v < n; v++) {
+            int count = sideOffsets[v + 1] - sideOffsets[v];
+            if (count == 0) {
+                continue;
+            }
+            if (row.length < count) {
+                row = new long[Math.max(count, 2 * row.length)];
+            }
+            int r = 0;
+            cursor.reset(v);
+            for (int i = 0; cursor.next(); i++) {
+                if (i != bestEdge[v]) {
+                    int slack = Math.toIntExact((long) tail[v] - cursor.weight() - tail[cursor.target()]);
+                    row[r++] = ((long) slack << 32) | i;
+                }
+            }
+            Arrays.sort(row, 0, count);
+            for (r = 0; r < count; r++) {
+                sideEdges[sideOffsets[v] + r] = (int) row[r];
+                sideSlacks[sideOffsets[v] + r] = (int) (row[r] >>> 32);
+            }
+        }
+
+        // A vertex's heap is its successor's plus its own cheapest sidetrack, so successors go first
+        for (int k = n - 1; k >= 0; k--) {
+            int v = order == null ? k : order[k];
+            int next = bestEdge[v] == NO_EDGE ? NO_NODE : walkHeap[graph.neighborAt(v, bestEdge[v])];
+            walkHeap[v] = sideOffsets[v + 1] > sideOffsets[v] ? merge(newNode(v), next) : next;
+        }
+        metrics.addOperations("edge_checks", edgeChecks);
+        queue.add(new Candidate(null, NO_EDGE, NO_EDGE, NO_NODE, source, 0));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public DAGShortestPath.CriticalPathResult next() {
+        Candidate candidate = queue.poll();
+        if (candidate == null) {
+            throw new NoSuchElementException("No more paths");
+        }
+
+        long pushed = 0;
+        if (candidate.parent != null) {
+            // Swap the latest sidetrack for the next cheapest one in the same heap or list
+            long base = candidate.slack - sideSlacks[candidate.side];
+            Candidate parent = candidate.parent;
+            if (candidate.node != NO_NODE) {
+                pushed += offerNode(parent, nodeLeft.get(candidate.node), base);
+                pushed += offerNode(parent, nodeRight.get(candidate.node), base);
+            }
+            if (candidate.side + 1 < sideOffsets[candidate.from + 1]) {
+                pushed += offer(parent, candidate.from, candidate.side + 1, NO_NODE, base);
+            }
+        }
+        // Or keep it and add the cheapest sidetrack further along the best walk
+        pushed += offerNode(candidate, walkHeap[candidate.to], candidate.slack);
+        metrics.addOperations("topk_candidates", pushed);
+        return toPath(candidate);
+    }
+
+    private int offerNode(Candidate parent, int node, long base) {
+        if (node == NO_NODE) {
+            return 0;
+        }
+        int vertex = nodeVertex.get(node);
+        return offer(parent, vertex, sideOffsets[vertex], node, base);
+    }
+
+    private int offer(Candidate parent, int from, int side, int node, long base) {
+        int to = graph.neighborAt(from, sideEdges[side]);
+        queue.add(new Candidate(parent, from, side, node, to, base + sideSlacks[side]));
+        return 1;
+    }
+
+    private int newNode(int vertex) {
+        nodeVertex.add(vertex);
+        nodeLeft.add(NO_NODE);
+        nodeRight.add(NO_NODE);
+        nodeRank.add(1);
+        return nodeVertex.size() - 1;
+    }
+
+    // Merges two leftist heaps keyed by each vertex's cheapest slack, copying instead of
+    // mutating so heaps shared by other vertices stay intact
+    private int merge(int a, int b) {
+        if (a == NO_NODE) {
+            return b;
+        }
+        if (b == NO_NODE) {
+            return a;
+        }
+        if (key(b) < key(a)) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        int copy = newNode(nodeVertex.get(a));
+        int left = nodeLeft.get(a);
+        int right = merge(nodeRight.get(a), b);
+        if (rank(left) < rank(right)) {
+            int swap = left;
+            left = right;
+            right = swap;
+        }
+        nodeLeft.set(copy, left);
+        nodeRight.set(copy, right);
+        nodeRank.set(copy, rank(right) + 1);
+        return copy;
+    }
+
+    private int key(int node) {
+        return sideSlacks[sideOffsets[nodeVertex.get(node)]];
+    }
+
+    private int rank(int node) {
+        return node == NO_NODE ? 0 : nodeRank.get(node);
+    }
+
+    private DAGShortestPath.CriticalPathResult toPath(Candidate candidate) {
+        List<Candidate> sidetracks = new ArrayList<>();
+        for (Candidate c = candidate; c.parent != null; c = c.parent) {
+            sidetracks.add(c);
+        }
+
+        List<Integer> path = new ArrayList<>();
+        int x = source;
+        path.add(x);
+        for (int s = sidetracks.size() - 1; s >= 0; s--) {
+            Candidate sidetrack = sidetracks.get(s);
+            while (x != sidetrack.from) {
+                x = graph.neighborAt(x, bestEdge[x]);
+                path.add(x);
+            }
+            x = sidetrack.to;
+            path.add(x);
+        }
+        while (bestEdge[x] != NO_EDGE) {
+            x = graph.neighborAt(x, bestEdge[x]);
+            path.add(x);
+        }
+
+        long length = tail[source] - candidate.slack;
+        return new DAGShortestPath.CriticalPathResult(path, (int) length, x);
+    }
+}
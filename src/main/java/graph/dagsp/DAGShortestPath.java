@@ -1,141 +1,411 @@
 package graph.dagsp;
 
-import graph.model.Graph;
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.ParallelRange;
+import graph.util.Workspace;
 import metrics.Metrics;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DAGShortestPath {
+    // Sources relaxed together per edge visit by the batch methods
+    public static final int SOURCE_BLOCK = 8;
+    private static final Workspace.Slot SHORTEST_DIST = Workspace.slot("dagsp.shortestDist");
+    private static final Workspace.Slot LONGEST_DIST = Workspace.slot("dagsp.longestDist");
+
     private Metrics metrics;
 
     public DAGShortestPath(Metrics metrics) {
         this.metrics = metrics;
     }
 
-    public int[] shortestPaths(Graph graph, List<Integer> topoOrder, int source) {
+    public int[] shortestPaths(IntGraph graph, List<Integer> topoOrder, int source) {
+        return relax(graph, toArray(topoOrder), source, false);
+    }
+
+    // For graphs numbered in topological order (every edge u -> v has u < v), such as the
+    // condensation from SCCFinder.condenseTopologically: ids are swept from the source upwards
+    public int[] shortestPaths(IntGraph dag, int source) {
+        return relax(dag, null, source, false);
+    }
+
+    // Workspace variants: topoOrder is read for the first n entries (as returned by
+    // TopologicalSort.topologicalOrderKahn(graph, workspace)), and the returned distances
+    // are workspace buffers overwritten by the next call of the same method.
+    public int[] shortestPaths(IntGraph graph, int[] topoOrder, int source, Workspace workspace) {
+        return relax(graph, topoOrder, source, false, workspace, SHORTEST_DIST);
+    }
+
+    public int[] shortestPaths(IntGraph dag, int source, Workspace workspace) {
+        return relax(dag, null, source, false, workspace, SHORTEST_DIST);
+    }
+
+    // Distances plus the parent of every reached vertex, so paths come out in O(path length)
+    public PathResult shortestPathTree(IntGraph graph, List<Integer> topoOrder, int source) {
+        return pathTree(graph, toArray(topoOrder), source, false);
+    }
+
+    public PathResult shortestPathTree(IntGraph dag, int source) {
+        return pathTree(dag, null, source, false);
+    }
+
+    private int[] relax(IntGraph graph, int[] topoOrder, int source, boolean longest) {
+        metrics.startTimer();
+        int[] dist = new int[graph.getVertexCount()];
+        relax(graph, graph.neighborCursor(), topoOrder, source, longest, dist, null);
+        metrics.stopTimer();
+        return dist;
+    }
+
+    private PathResult pathTree(IntGraph graph, int[] topoOrder, int source, boolean longest) {
         metrics.startTimer();
         int n = graph.getVertexCount();
         int[] dist = new int[n];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        dist[source] = 0;
+        int[] parent = new int[n];
+        relax(graph, graph.neighborCursor(), topoOrder, source, longest, dist, parent);
+        metrics.stopTimer();
+        return new PathResult(source, dist, parent, longest);
+    }
 
-        for (int u : topoOrder) {
-            metrics.incrementOperation("relaxations");
-            if (dist[u] != Integer.MAX_VALUE) {
-                for (int v : graph.getNeighbors(u)) {
-                    int weight = graph.getWeight(u, v);
-                    metrics.incrementOperation("edge_checks");
-                    if (dist[u] + weight < dist[v]) {
-                        dist[v] = dist[u] + weight;
-                        metrics.incrementOperation("distance_updates");
-                    }
-                }
-            }
-        }
+    private int[] relax(IntGraph graph, int[] topoOrder, int source, boolean longest, Workspace workspace,
+                        Workspace.Slot slot) {
+        metrics.startTimer();
+        int[] dist = workspace.ints(slot, graph.getVertexCount());
+        relax(graph, workspace.neighborCursor(graph), topoOrder, source, longest, dist, null);
         metrics.stopTimer();
         return dist;
     }
 
-    public List<Integer> reconstructPath(Graph graph, int[] dist, int source, int target) {
-        if (dist[target] == Integer.MAX_VALUE) {
-            return Collections.emptyList(); // No path exists
+    // A null order means id order from the source upwards, rejecting edges that point backwards.
+    // parent is optional; when given, it records the vertex each distance was last improved from.
+    private void relax(IntGraph graph, NeighborCursor cursor, int[] topoOrder, int source, boolean longest,
+                       int[] dist, int[] parent) {
+        int n = graph.getVertexCount();
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        Arrays.fill(dist, 0, n, unreached);
+        dist[source] = 0;
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, PathResult.NO_PARENT);
         }
+        long relaxations = 0;
+        long edgeChecks = 0;
+        long updates = 0;
 
-        List<Integer> path = new ArrayList<>();
-        path.add(target);
-        int current = target;
-
-        while (current != source) {
-            boolean found = false;
-            for (int i = 0; i < graph.getVertexCount(); i++) {
-                if (graph.hasEdge(i, current)) {
-                    int weight = graph.getWeight(i, current);
-                    if (dist[i] != Integer.MAX_VALUE && dist[i] + weight == dist[current]) {
-                        path.add(0, i);
-                        current = i;
-                        found = true;
-                        break;
+        for (int k = topoOrder == null ? source : 0; k < n; k++) {
+            int u = topoOrder == null ? k : topoOrder[k];
+            relaxations++;
+            if (dist[u] == unreached) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                int weight = cursor.weight();
+                edgeChecks++;
+                if (topoOrder == null && v <= u) {
+                    throw new IllegalArgumentException("Graph is not numbered in topological order: edge " +
+                            u + "->" + v);
+                }
+                if (longest ? dist[u] + weight > dist[v] : dist[u] + weight < dist[v]) {
+                    dist[v] = dist[u] + weight;
+                    if (parent != null) {
+                        parent[v] = u;
                     }
+                    updates++;
                 }
             }
-            if (!found) break;
         }
+        metrics.addOperations("relaxations", relaxations);
+        metrics.addOperations("edge_checks", edgeChecks);
+        metrics.addOperations("distance_updates", updates);
+    }
 
-        return path;
+    private static int[] toArray(List<Integer> order) {
+        int[] array = new int[order.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = order.get(i);
+        }
+        return array;
     }
 
-    // Add these methods to the existing DAGShortestPath class
+    // Distances from every source over one shared order. Sources are relaxed SOURCE_BLOCK at a
+    // time, so each edge is read once per block, and blocks run in parallel.
+    public DistanceTable shortestPathsFromSources(IntGraph graph, List<Integer> topoOrder, int[] sources,
+                                                  int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return shortestPathsFromSources(graph, topoOrder, sources, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-    public int[] longestPaths(Graph graph, List<Integer> topoOrder, int source) {
+    public DistanceTable shortestPathsFromSources(IntGraph graph, List<Integer> topoOrder, int[] sources,
+                                                  ForkJoinPool pool) {
+        return batch(graph, toArray(topoOrder), sources, false, pool);
+    }
+
+    public DistanceTable longestPathsFromSources(IntGraph graph, List<Integer> topoOrder, int[] sources,
+                                                 int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return longestPathsFromSources(graph, topoOrder, sources, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public DistanceTable longestPathsFromSources(IntGraph graph, List<Integer> topoOrder, int[] sources,
+                                                 ForkJoinPool pool) {
+        return batch(graph, toArray(topoOrder), sources, true, pool);
+    }
+
+    // All sources start at distance 0 in one pass; each vertex learns its closest source
+    public NearestSources nearestSources(IntGraph graph, List<Integer> topoOrder, int[] sources) {
         metrics.startTimer();
         int n = graph.getVertexCount();
         int[] dist = new int[n];
-        Arrays.fill(dist, Integer.MIN_VALUE);
-        dist[source] = 0;
+        int[] nearest = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(nearest, NearestSources.NONE);
+        for (int source : sources) {
+            dist[source] = 0;
+            nearest[source] = source;
+        }
+        NeighborCursor cursor = graph.neighborCursor();
+        long edgeChecks = 0;
 
         for (int u : topoOrder) {
-            metrics.incrementOperation("relaxations");
-            if (dist[u] != Integer.MIN_VALUE) {
-                for (int v : graph.getNeighbors(u)) {
-                    int weight = graph.getWeight(u, v);
-                    metrics.incrementOperation("edge_checks");
-                    if (dist[u] + weight > dist[v]) {
-                        dist[v] = dist[u] + weight;
-                        metrics.incrementOperation("distance_updates");
-                    }
+            if (nearest[u] == NearestSources.NONE) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                int candidate = dist[u] + cursor.weight();
+                edgeChecks++;
+                // Ordered by (distance, source id), so ties resolve the same way on every path
+                if (candidate < dist[v] || (candidate == dist[v] && nearest[u] < nearest[v])) {
+                    dist[v] = candidate;
+                    nearest[v] = nearest[u];
                 }
             }
         }
+
+        metrics.addOperations("batch_sources", sources.length);
+        metrics.addOperations("edge_checks", edgeChecks);
         metrics.stopTimer();
-        return dist;
+        return new NearestSources(dist, nearest);
     }
 
-    public CriticalPathResult findCriticalPath(Graph graph, List<Integer> topoOrder, int source) {
-        int[] longestDist = longestPaths(graph, topoOrder, source);
-
-        // Find the vertex with maximum distance
-        int maxDist = Integer.MIN_VALUE;
-        int endVertex = source;
-        for (int i = 0; i < longestDist.length; i++) {
-            if (longestDist[i] != Integer.MIN_VALUE && longestDist[i] > maxDist) {
-                maxDist = longestDist[i];
-                endVertex = i;
+    private DistanceTable batch(IntGraph graph, int[] order, int[] sources, boolean longest, ForkJoinPool pool) {
+        metrics.startTimer();
+        int n = graph.getVertexCount();
+        int[] batchSources = sources.clone();
+        int[][] blocks = new int[(batchSources.length + SOURCE_BLOCK - 1) / SOURCE_BLOCK][];
+        LongAdder edgeChecks = new LongAdder();
+        ParallelRange.forEach(pool, 0, blocks.length, 1, (from, to) -> {
+            NeighborCursor cursor = graph.neighborCursor();
+            for (int block = from; block < to; block++) {
+                int first = block * SOURCE_BLOCK;
+                int width = Math.min(SOURCE_BLOCK, batchSources.length - first);
+                int[] dist = new int[n * width];
+                edgeChecks.add(relaxBlock(cursor, order, batchSources, first, width, longest, dist));
+                blocks[block] = dist;
             }
-        }
+        });
+        metrics.addOperations("batch_sources", batchSources.length);
+        metrics.addOperations("edge_checks", edgeChecks.sum());
+        metrics.stopTimer();
+        return new DistanceTable(batchSources, n, blocks, longest);
+    }
 
-        // Reconstruct the critical path
-        List<Integer> criticalPath = reconstructLongestPath(graph, longestDist, source, endVertex);
+    // dist[v * width + s] is the distance from sources[first + s] to v; returns the edges read
+    private static long relaxBlock(NeighborCursor cursor, int[] order, int[] sources, int first, int width,
+                                   boolean longest, int[] dist) {
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        Arrays.fill(dist, unreached);
+        for (int s = 0; s < width; s++) {
+            dist[sources[first + s] * width + s] = 0;
+        }
+        long edgeChecks = 0;
 
-        return new CriticalPathResult(criticalPath, maxDist, endVertex);
+        for (int u : order) {
+            int base = u * width;
+            boolean reached = false;
+            for (int s = 0; s < width && !reached; s++) {
+                reached = dist[base + s] != unreached;
+            }
+            if (!reached) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int target = cursor.target() * width;
+                int weight = cursor.weight();
+                edgeChecks++;
+                for (int s = 0; s < width; s++) {
+                    int du = dist[base + s];
+                    if (du == unreached) {
+                        continue;
+                    }
+                    int candidate = du + weight;
+                    if (longest ? candidate > dist[target + s] : candidate < dist[target + s]) {
+                        dist[target + s] = candidate;
+                    }
+                }
+            }
+        }
+        return edgeChecks;
     }
 
-    private List<Integer> reconstructLongestPath(Graph graph, int[] dist, int source, int target) {
-        if (dist[target] == Integer.MIN_VALUE) {
-            return Collections.emptyList();
+    // For callers that only kept distances. Walks in-edges back from the target when the graph
+    // already has them, otherwise finds tight edges in one forward sweep; it never builds a
+    // transpose. Prefer shortestPathTree, which needs no search at all.
+    public List<Integer> reconstructPath(IntGraph graph, int[] dist, int source, int target) {
+        if (dist[target] == Integer.MAX_VALUE) {
+            return Collections.emptyList(); // No path exists
         }
 
+        NeighborCursor cursor = graph.neighborCursor();
+        int[] parent = graph.hasReverseAdjacency() ? null : tightParents(graph, cursor, dist);
         List<Integer> path = new ArrayList<>();
         path.add(target);
         int current = target;
-
         while (current != source) {
-            boolean found = false;
-            for (int i = 0; i < graph.getVertexCount(); i++) {
-                if (graph.hasEdge(i, current)) {
-                    int weight = graph.getWeight(i, current);
-                    if (dist[i] != Integer.MIN_VALUE && dist[i] + weight == dist[current]) {
-                        path.add(0, i);
-                        current = i;
-                        found = true;
-                        break;
-                    }
-                }
+            int previous = parent != null ? parent[current] : tightPredecessor(graph, cursor, dist, current);
+            if (previous < 0) {
+                break;
             }
-            if (!found) break;
+            path.add(previous);
+            current = previous;
         }
 
+        Collections.reverse(path);
         return path;
     }
 
+    // First in-neighbor u with an edge u -> v of weight dist[v] - dist[u], or -1
+    private static int tightPredecessor(IntGraph graph, NeighborCursor cursor, int[] dist, int v) {
+        for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+            int u = graph.reverseNeighborAt(v, i);
+            if (dist[u] == Integer.MAX_VALUE) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                if (cursor.target() == v && dist[u] + cursor.weight() == dist[v]) {
+                    return u;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // The smallest such u for every vertex at once, from one pass over the out-edges
+    private static int[] tightParents(IntGraph graph, NeighborCursor cursor, int[] dist) {
+        int n = graph.getVertexCount();
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        for (int u = 0; u < n; u++) {
+            if (dist[u] == Integer.MAX_VALUE) {
+                continue;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                if (parent[v] < 0 && dist[u] + cursor.weight() == dist[v]) {
+                    parent[v] = u;
+                }
+            }
+        }
+        return parent;
+    }
+
+    public int[] longestPaths(IntGraph graph, List<Integer> topoOrder, int source) {
+        return relax(graph, toArray(topoOrder), source, true);
+    }
+
+    // Id-order variant; see shortestPaths(IntGraph, int)
+    public int[] longestPaths(IntGraph dag, int source) {
+        return relax(dag, null, source, true);
+    }
+
+    public int[] longestPaths(IntGraph graph, int[] topoOrder, int source, Workspace workspace) {
+        return relax(graph, topoOrder, source, true, workspace, LONGEST_DIST);
+    }
+
+    public int[] longestPaths(IntGraph dag, int source, Workspace workspace) {
+        return relax(dag, null, source, true, workspace, LONGEST_DIST);
+    }
+
+    public PathResult longestPathTree(IntGraph graph, List<Integer> topoOrder, int source) {
+        return pathTree(graph, toArray(topoOrder), source, true);
+    }
+
+    public PathResult longestPathTree(IntGraph dag, int source) {
+        return pathTree(dag, null, source, true);
+    }
+
+    public CriticalPathResult findCriticalPath(IntGraph graph, List<Integer> topoOrder, int source) {
+        return criticalPath(longestPathTree(graph, topoOrder, source));
+    }
+
+    public CriticalPathResult findCriticalPath(IntGraph dag, int source) {
+        return criticalPath(longestPathTree(dag, source));
+    }
+
+    // Source-to-sink paths from longest to shortest, computed one at a time as the caller
+    // iterates; stop whenever enough have been seen. See CriticalPathEnumerator.
+    public Iterator<CriticalPathResult> criticalPaths(IntGraph graph, List<Integer> topoOrder, int source) {
+        return new CriticalPathEnumerator(graph, toArray(topoOrder), source, metrics);
+    }
+
+    // Id-order variant; see shortestPaths(IntGraph, int)
+    public Iterator<CriticalPathResult> criticalPaths(IntGraph dag, int source) {
+        return new CriticalPathEnumerator(dag, null, source, metrics);
+    }
+
+    // The k longest source-to-sink paths (fewer if the DAG has fewer), longest first
+    public List<CriticalPathResult> findTopCriticalPaths(IntGraph graph, List<Integer> topoOrder, int source, int k) {
+        metrics.startTimer();
+        List<CriticalPathResult> top = take(criticalPaths(graph, topoOrder, source), k);
+        metrics.stopTimer();
+        return top;
+    }
+
+    public List<CriticalPathResult> findTopCriticalPaths(IntGraph dag, int source, int k) {
+        metrics.startTimer();
+        List<CriticalPathResult> top = take(criticalPaths(dag, source), k);
+        metrics.stopTimer();
+        return top;
+    }
+
+    private static List<CriticalPathResult> take(Iterator<CriticalPathResult> paths, int k) {
+        List<CriticalPathResult> top = new ArrayList<>(k);
+        while (top.size() < k && paths.hasNext()) {
+            top.add(paths.next());
+        }
+        return top;
+    }
+
+    private CriticalPathResult criticalPath(PathResult longest) {
+        // Find the vertex with maximum distance
+        int[] longestDist = longest.getDistances();
+        int maxDist = Integer.MIN_VALUE;
+        int endVertex = longest.getSource();
+        for (int i = 0; i < longestDist.length; i++) {
+            if (longestDist[i] != Integer.MIN_VALUE && longestDist[i] > maxDist) {
+                maxDist = longestDist[i];
+                endVertex = i;
+            }
+        }
+
+        return new CriticalPathResult(longest.pathTo(endVertex), maxDist, endVertex);
+    }
+
     public static class CriticalPathResult {
         private final List<Integer> path;
         private final int length;
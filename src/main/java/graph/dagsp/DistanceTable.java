@@ -0,0 +1,60 @@
+package graph.dagsp;
+
+/**
+ * Distances from a batch of sources, one row per source. Rows are stored
+ * in blocks of {@link DAGShortestPath#SOURCE_BLOCK} sources laid out
+ * vertex-major (all of a block's distances to vertex v sit next to each
+ * other), which is the layout the batch relaxation writes.
+ */
+public final class DistanceTable {
+    private final int[] sources;
+    private final int vertexCount;
+    private final int[][] blocks;
+    private final int unreached;
+
+    DistanceTable(int[] sources, int vertexCount, int[][] blocks, boolean longest) {
+        this.sources = sources;
+        this.vertexCount = vertexCount;
+        this.blocks = blocks;
+        this.unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    }
+
+    public int sourceCount() {
+        return sources.length;
+    }
+
+    public int source(int sourceIndex) {
+        return sources[sourceIndex];
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int distance(int sourceIndex, int vertex) {
+        int block = sourceIndex / DAGShortestPath.SOURCE_BLOCK;
+        int width = blockWidth(block);
+        return blocks[block][vertex * width + sourceIndex % DAGShortestPath.SOURCE_BLOCK];
+    }
+
+    public boolean isReachable(int sourceIndex, int vertex) {
+        return distance(sourceIndex, vertex) != unreached;
+    }
+
+    // Copy of one source's row, in the same form shortestPaths / longestPaths return
+    public int[] distancesFrom(int sourceIndex) {
+        int block = sourceIndex / DAGShortestPath.SOURCE_BLOCK;
+        int width = blockWidth(block);
+        int offset = sourceIndex % DAGShortestPath.SOURCE_BLOCK;
+        int[] packed = blocks[block];
+        int[] row = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            row[v] = packed[v * width + offset];
+        }
+        return row;
+    }
+
+    private int blockWidth(int block) {
+        return Math.min(DAGShortestPath.SOURCE_BLOCK, sources.length - block * DAGShortestPath.SOURCE_BLOCK);
+    }
+}
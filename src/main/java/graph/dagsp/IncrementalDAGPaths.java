@@ -0,0 +1,343 @@
+package graph.dagsp;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-source shortest or longest distances on a DAG whose edge weights
+ * keep changing.
+ *
+ * The structure keeps its own copy of the edges, with in-edges pointing to
+ * the same weight slots, along with distances and parents. A batch of
+ * weight changes marks the heads of the changed edges dirty. Dirty vertices
+ * are processed in topological order from a position heap; each one
+ * recomputes its distance from its in-edges, and only if the distance moved
+ * are its successors marked dirty. Increases and decreases are handled
+ * alike, and vertices outside the changed edges' downstream cone are never
+ * touched. A max tree over the distances keeps the farthest vertex, and so
+ * the critical path, available without a scan.
+ */
+public class IncrementalDAGPaths {
+    private final Metrics metrics;
+    private final boolean longest;
+    private final int unreached;
+    private final int source;
+    private final int[] order;
+    private final int[] position;
+    // Out-edges in CSR form; in-edges refer to out-edge slots so both see one weight
+    private final int[] outOffsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+    private final int[] edgeSource;
+    private final int[] dist;
+    private final int[] parent;
+    // View over dist and parent, so path extraction is PathResult's
+    private final PathResult tree;
+    // Heap of dirty vertex positions; queued marks vertices already in it
+    private final int[] heap;
+    private int heapSize;
+    private final boolean[] queued;
+    // farthest[1] is the reachable vertex with the largest distance; leaves start at leafBase
+    private final int[] farthest;
+    private final int leafBase;
+
+    // Counts for one batch of weight changes
+    public static final class Update {
+        private final int touched;
+        private final int changed;
+        private final DAGShortestPath.CriticalPathResult criticalPath;
+
+        Update(int touched, int changed, DAGShortestPath.CriticalPathResult criticalPath) {
+            this.touched = touched;
+            this.changed = changed;
+            this.criticalPath = criticalPath;
+        }
+
+        // Vertices whose distance was recomputed
+        public int getTouched() {
+            return touched;
+        }
+
+        // Vertices whose distance actually changed
+        public int getChanged() {
+            return changed;
+        }
+
+        // Path to the farthest reachable vertex after the batch
+        public DAGShortestPath.CriticalPathResult getCriticalPath() {
+            return criticalPath;
+        }
+    }
+
+    // topoOrder may be null for graphs numbered in topological order
+    public static IncrementalDAGPaths shortest(IntGraph graph, List<Integer> topoOrder, int source, Metrics metrics) {
+        return new IncrementalDAGPaths(graph, topoOrder, source, false, metrics);
+    }
+
+    public static IncrementalDAGPaths longest(IntGraph graph, List<Integer> topoOrder, int source, Metrics metrics) {
+        return new IncrementalDAGPaths(graph, topoOrder, source, true, metrics);
+    }
+
+    private IncrementalDAGPaths(IntGraph graph, List<Integer> topoOrder, int source, boolean longest,
+                                Metrics metrics) {
+        this.metrics = metrics;
+        this.longest = longest;
+        this.unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        this.source = source;
+        int n = graph.getVertexCount();
+        int m = graph.getEdgeCount();
+
+        this.order = new int[n];
+        this.position = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = topoOrder == null ? k : topoOrder.get(k);
+            position[order[k]] = k;
+        }
+
+        this.outOffsets = new int[n + 1];
+        this.targets = new int[m];
+        this.weights = new int[m];
+        this.edgeSource = new int[m];
+        this.inOffsets = new int[n + 1];
+        this.inEdges = new int[m];
+        NeighborCursor cursor = graph.neighborCursor();
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            outOffsets[u] = e;
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                if (position[v] <= position[u]) {
+                    throw new IllegalArgumentException("Edge " + u + "->" + v + " goes against the topological order");
+                }
+                targets[e] = v;
+                weights[e] = cursor.weight();
+                edgeSource[e] = u;
+                inOffsets[v + 1]++;
+                e++;
+            }
+        }
+        outOffsets[n] = e;
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int edge = 0; edge < e; edge++) {
+            inEdges[fill[targets[edge]]++] = edge;
+        }
+
+        this.dist = new int[n];
+        this.parent = new int[n];
+        this.tree = new PathResult(source, dist, parent, longest);
+        this.heap = new int[n];
+        this.queued = new boolean[n];
+        int leaves = 1;
+        while (leaves < Math.max(1, n)) {
+            leaves <<= 1;
+        }
+        this.leafBase = leaves;
+        this.farthest = new int[2 * leaves];
+        relaxAll();
+    }
+
+    // Sets the weight of every copy of from -> to, then repairs the downstream distances
+    public Update updateWeight(int from, int to, int weight) {
+        return updateWeights(new int[]{from}, new int[]{to}, new int[]{weight});
+    }
+
+    public Update updateWeights(int[] from, int[] to, int[] newWeights) {
+        metrics.startTimer();
+        for (int i = 0; i < from.length; i++) {
+            boolean found = false;
+            for (int e = outOffsets[from[i]]; e < outOffsets[from[i] + 1]; e++) {
+                if (targets[e] == to[i]) {
+                    weights[e] = newWeights[i];
+                    found = true;
+                }
+            }
+            if (!found) {
+                throw new IllegalArgumentException("No edge " + from[i] + "->" + to[i]);
+            }
+            enqueue(to[i]);
+        }
+
+        int touched = 0;
+        int changed = 0;
+        long edgeChecks = 0;
+        while (heapSize > 0) {
+            int v = order[poll()];
+            queued[v] = false;
+            touched++;
+            edgeChecks += inOffsets[v + 1] - inOffsets[v];
+            if (v == source || !recompute(v)) {
+                continue;
+            }
+            changed++;
+            for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                enqueue(targets[e]);
+            }
+        }
+
+        metrics.addOperations("incremental_touched", touched);
+        metrics.addOperations("incremental_changed", changed);
+        metrics.addOperations("edge_checks", edgeChecks);
+        metrics.stopTimer();
+        return new Update(touched, changed, criticalPath());
+    }
+
+    public int distance(int vertex) {
+        return dist[vertex];
+    }
+
+    // Backing distance array, updated in place by later batches
+    public int[] getDistances() {
+        return dist;
+    }
+
+    public boolean isReachable(int vertex) {
+        return dist[vertex] != unreached;
+    }
+
+    public int parent(int vertex) {
+        return parent[vertex];
+    }
+
+    public int getWeight(int from, int to) {
+        for (int e = outOffsets[from]; e < outOffsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                return weights[e];
+            }
+        }
+        throw new IllegalArgumentException("No edge " + from + "->" + to);
+    }
+
+    // Live path tree over the backing arrays; later batches show through it
+    public PathResult asPathResult() {
+        return tree;
+    }
+
+    public List<Integer> pathTo(int target) {
+        return tree.pathTo(target);
+    }
+
+    // Path to the reachable vertex with the largest distance (lowest id on ties)
+    public DAGShortestPath.CriticalPathResult criticalPath() {
+        int end = farthest[1];
+        return new DAGShortestPath.CriticalPathResult(pathTo(end), dist[end], end);
+    }
+
+    private void relaxAll() {
+        int n = dist.length;
+        Arrays.fill(dist, unreached);
+        Arrays.fill(parent, PathResult.NO_PARENT);
+        dist[source] = 0;
+        for (int k = position[source]; k < n; k++) {
+            int u = order[k];
+            if (dist[u] == unreached) {
+                continue;
+            }
+            for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+                int v = targets[e];
+                int candidate = dist[u] + weights[e];
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    parent[v] = u;
+                }
+            }
+        }
+        metrics.addOperations("edge_checks", targets.length);
+
+        for (int i = 0; i < farthest.length - leafBase; i++) {
+            farthest[leafBase + i] = i < n ? i : -1;
+        }
+        for (int node = leafBase - 1; node >= 1; node--) {
+            farthest[node] = better(farthest[2 * node], farthest[2 * node + 1]);
+        }
+    }
+
+    // Best distance over v's in-edges; returns true if dist[v] changed
+    private boolean recompute(int v) {
+        int best = unreached;
+        int bestParent = PathResult.NO_PARENT;
+        for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+            int e = inEdges[i];
+            int u = edgeSource[e];
+            if (dist[u] == unreached) {
+                continue;
+            }
+            int candidate = dist[u] + weights[e];
+            if (bestParent == PathResult.NO_PARENT || (longest ? candidate > best : candidate < best)) {
+                best = candidate;
+                bestParent = u;
+            }
+        }
+        parent[v] = bestParent;
+        if (best == dist[v]) {
+            return false;
+        }
+        dist[v] = best;
+        for (int node = (leafBase + v) >> 1; node >= 1; node >>= 1) {
+            farthest[node] = better(farthest[2 * node], farthest[2 * node + 1]);
+        }
+        return true;
+    }
+
+    // Farther of two vertices (-1 is padding); unreachable vertices lose to reachable ones
+    private int better(int a, int b) {
+        if (a < 0 || b < 0) {
+            return a < 0 ? b : a;
+        }
+        boolean reachableA = dist[a] != unreached;
+        boolean reachableB = dist[b] != unreached;
+        if (reachableA != reachableB) {
+            return reachableA ? a : b;
+        }
+        if (!reachableA || dist[a] == dist[b]) {
+            return Math.min(a, b);
+        }
+        return dist[a] > dist[b] ? a : b;
+    }
+
+    private void enqueue(int v) {
+        if (queued[v]) {
+            return;
+        }
+        queued[v] = true;
+        int slot = heapSize++;
+        int key = position[v];
+        while (slot > 0 && heap[(slot - 1) >> 1] > key) {
+            heap[slot] = heap[(slot - 1) >> 1];
+            slot = (slot - 1) >> 1;
+        }
+        heap[slot] = key;
+    }
+
+    // Removes and returns the smallest queued position
+    private int poll() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[slot] = heap[child];
+            slot = child;
+        }
+        heap[slot] = last;
+        return top;
+    }
+}
@@ -0,0 +1,36 @@
+package graph.dagsp;
+
+/**
+ * Result of a multi-source relaxation where every source starts at
+ * distance 0: for each vertex, the distance to it from the closest source
+ * and which source that is. Ties go to the smaller source id.
+ */
+public final class NearestSources {
+    public static final int NONE = -1;
+
+    private final int[] dist;
+    private final int[] nearest;
+
+    NearestSources(int[] dist, int[] nearest) {
+        this.dist = dist;
+        this.nearest = nearest;
+    }
+
+    // Backing distance array; shared, so callers must not modify it
+    public int[] getDistances() {
+        return dist;
+    }
+
+    public int distance(int vertex) {
+        return dist[vertex];
+    }
+
+    // Closest source vertex, or NONE when no source reaches the vertex
+    public int nearestSource(int vertex) {
+        return nearest[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return nearest[vertex] != NONE;
+    }
+}
@@ -0,0 +1,210 @@
+package graph.dagsp;
+
+import graph.model.IntGraph;
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers repeated path queries on one DAG from cached per-source path
+ * trees.
+ *
+ * Each (source, shortest or longest) pair is computed once and kept in an
+ * LRU cache bounded by the bytes of its distance and parent arrays. Keys
+ * carry the graph version, and every graph change bumps the version and
+ * drops the cache, so a tree computed against an older graph can never be
+ * served. Concurrent requests for a tree that is still being computed wait
+ * for that computation instead of starting their own. Cache counters go to
+ * the service's Metrics as cache_hits, cache_misses, cache_evictions and
+ * cache_joins; it is only touched under the service lock.
+ */
+public class PathQueryService {
+    // Rough per-entry cost beyond the two arrays: key, map entry and PathResult headers
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Metrics metrics;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, PathResult> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Long, CompletableFuture<PathResult>> inFlight = new ConcurrentHashMap<>();
+    private long cachedBytes;
+    private volatile Snapshot snapshot;
+
+    // The graph, its order and the version they were published under, swapped as one
+    private static final class Snapshot {
+        final IntGraph graph;
+        final List<Integer> topoOrder;
+        final long version;
+
+        Snapshot(IntGraph graph, List<Integer> topoOrder, long version) {
+            this.graph = graph;
+            this.topoOrder = topoOrder;
+            this.version = version;
+        }
+    }
+
+    // topoOrder may be null for graphs numbered in topological order
+    public PathQueryService(IntGraph graph, List<Integer> topoOrder, long maxBytes, Metrics metrics) {
+        this.metrics = metrics;
+        this.maxBytes = maxBytes;
+        this.snapshot = new Snapshot(graph, topoOrder, 0);
+    }
+
+    // Replaces the graph; cached trees of the previous version are dropped
+    public void updateGraph(IntGraph graph, List<Integer> topoOrder) {
+        synchronized (this) {
+            snapshot = new Snapshot(graph, topoOrder, snapshot.version + 1);
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    // For graphs edited in place: same graph and order, new version
+    public synchronized void invalidate() {
+        updateGraph(snapshot.graph, snapshot.topoOrder);
+    }
+
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    public PathResult shortestFrom(int source) {
+        return tree(source, false);
+    }
+
+    public PathResult longestFrom(int source) {
+        return tree(source, true);
+    }
+
+    // Vertex sequence of a shortest from -> to path, empty if to is unreachable
+    public List<Integer> shortestPath(int from, int to) {
+        return shortestFrom(from).pathTo(to);
+    }
+
+    public List<Integer> longestPath(int from, int to) {
+        return longestFrom(from).pathTo(to);
+    }
+
+    public int shortestDistance(int from, int to) {
+        return shortestFrom(from).distance(to);
+    }
+
+    public int longestDistance(int from, int to) {
+        return longestFrom(from).distance(to);
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int getCachedEntries() {
+        return cache.size();
+    }
+
+    private PathResult tree(int source, boolean longest) {
+        Snapshot current = snapshot;
+        long key = key(current.version, source, longest);
+        PathResult cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<PathResult> mine = new CompletableFuture<>();
+        CompletableFuture<PathResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            synchronized (this) {
+                metrics.incrementOperation("cache_joins");
+            }
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // Same exception the computing caller saw, not the future's wrapper
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // Another caller may have stored it between the lookup and the claim
+            PathResult result = lookup(key);
+            if (result == null) {
+                synchronized (this) {
+                    metrics.incrementOperation("cache_misses");
+                }
+                result = compute(current, source, longest);
+                store(key, current.version, result);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private synchronized PathResult lookup(long key) {
+        PathResult cached = cache.get(key);
+        if (cached != null) {
+            metrics.incrementOperation("cache_hits");
+        }
+        return cached;
+    }
+
+    private PathResult compute(Snapshot current, int source, boolean longest) {
+        // Private metrics: the relaxation times itself, which would race on shared metrics
+        SimpleMetrics relaxMetrics = new SimpleMetrics();
+        DAGShortestPath paths = new DAGShortestPath(relaxMetrics);
+        PathResult result;
+        if (current.topoOrder == null) {
+            result = longest ? paths.longestPathTree(current.graph, source)
+                    : paths.shortestPathTree(current.graph, source);
+        } else {
+            result = longest ? paths.longestPathTree(current.graph, current.topoOrder, source)
+                    : paths.shortestPathTree(current.graph, current.topoOrder, source);
+        }
+        synchronized (this) {
+            metrics.addOperations("edge_checks", relaxMetrics.getOperationCount("edge_checks"));
+        }
+        return result;
+    }
+
+    private synchronized void store(long key, long version, PathResult result) {
+        long bytes = bytesOf(result);
+        // Computed against a graph that has since been replaced, or too big to ever fit
+        if (version != snapshot.version || bytes > maxBytes) {
+            return;
+        }
+        if (cache.put(key, result) == null) {
+            cachedBytes += bytes;
+        }
+        Iterator<Map.Entry<Long, PathResult>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            PathResult evicted = eldest.next().getValue();
+            eldest.remove();
+            cachedBytes -= bytesOf(evicted);
+            metrics.incrementOperation("cache_evictions");
+        }
+    }
+
+    private static long bytesOf(PathResult result) {
+        return 4L * result.getDistances().length + 4L * result.getParents().length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    // Version, source and direction packed into one long; sources stay below 2^31
+    private static long key(long version, int source, boolean longest) {
+        return (version << 32) | ((long) source << 1) | (longest ? 1 : 0);
+    }
+}
@@ -0,0 +1,66 @@
+package graph.dagsp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distances from one source together with the parent of every reached
+ * vertex, i.e. the shortest (or longest) path tree. A path is read by
+ * following parents back from its target, so extracting it costs time
+ * proportional to its length.
+ */
+public final class PathResult {
+    public static final int NO_PARENT = -1;
+
+    private final int source;
+    private final int[] dist;
+    private final int[] parent;
+    private final int unreached;
+
+    PathResult(int source, int[] dist, int[] parent, boolean longest) {
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    // Backing distance array; shared, so callers must not modify it
+    public int[] getDistances() {
+        return dist;
+    }
+
+    // Parent of every vertex in the path tree, NO_PARENT for the source and unreached vertices
+    public int[] getParents() {
+        return parent;
+    }
+
+    public int distance(int vertex) {
+        return dist[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return dist[vertex] != unreached;
+    }
+
+    public int parent(int vertex) {
+        return parent[vertex];
+    }
+
+    // Source-to-target vertex sequence, or an empty list if the target is unreachable
+    public List<Integer> pathTo(int target) {
+        if (!isReachable(target)) {
+            return Collections.emptyList();
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int v = target; v != NO_PARENT; v = parent[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
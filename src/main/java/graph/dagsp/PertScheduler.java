@@ -0,0 +1,103 @@
+package graph.dagsp;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import metrics.Metrics;
+
+import java.util.List;
+
+/**
+ * Critical path method over a whole DAG in two sweeps.
+ *
+ * Edge weights are the lag from a task's finish to its successor's start,
+ * and optional per-task durations are added on top. The forward sweep in
+ * topological order gives earliest starts, with every source at 0. The
+ * backward sweep in reverse order gives latest starts, pinning every sink
+ * to finish by the project length. Both sweeps only read out-edges, so no
+ * transpose is built.
+ */
+public class PertScheduler {
+    private Metrics metrics;
+
+    public PertScheduler(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Schedule schedule(IntGraph graph, List<Integer> topoOrder) {
+        return schedule(graph, topoOrder, null);
+    }
+
+    // durations[v] is task v's own duration; null means every task is instantaneous
+    public Schedule schedule(IntGraph graph, List<Integer> topoOrder, int[] durations) {
+        int[] order = new int[topoOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = topoOrder.get(i);
+        }
+        return sweep(graph, order, durations);
+    }
+
+    // For graphs numbered in topological order, such as SCCFinder.condenseTopologically's condensation
+    public Schedule schedule(IntGraph dag) {
+        return sweep(dag, null, null);
+    }
+
+    public Schedule schedule(IntGraph dag, int[] durations) {
+        return sweep(dag, null, durations);
+    }
+
+    private Schedule sweep(IntGraph graph, int[] order, int[] durations) {
+        metrics.startTimer();
+        int n = graph.getVertexCount();
+        int[] earliest = new int[n];
+        int[] latest = new int[n];
+        NeighborCursor cursor = graph.neighborCursor();
+        long edgeChecks = 0;
+
+        // Forward: earliest start is the latest finish over all predecessors
+        int projectLength = 0;
+        for (int k = 0; k < n; k++) {
+            int u = order == null ? k : order[k];
+            int finish = earliest[u] + duration(durations, u);
+            projectLength = Math.max(projectLength, finish);
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                edgeChecks++;
+                if (order == null && v <= u) {
+                    throw new IllegalArgumentException("Graph is not numbered in topological order: edge " +
+                            u + "->" + v);
+                }
+                earliest[v] = Math.max(earliest[v], finish + cursor.weight());
+            }
+        }
+
+        // Backward: latest start is the earliest successor deadline, minus lag and duration
+        int[] slack = new int[n];
+        boolean[] critical = new boolean[n];
+        int criticalCount = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            int u = order == null ? k : order[k];
+            int latestFinish = projectLength;
+            cursor.reset(u);
+            while (cursor.next()) {
+                latestFinish = Math.min(latestFinish, latest[cursor.target()] - cursor.weight());
+            }
+            latest[u] = latestFinish - duration(durations, u);
+            slack[u] = latest[u] - earliest[u];
+            if (slack[u] == 0) {
+                critical[u] = true;
+                criticalCount++;
+            }
+        }
+        edgeChecks += graph.getEdgeCount();
+
+        metrics.addOperations("edge_checks", edgeChecks);
+        metrics.addOperations("critical_tasks", criticalCount);
+        metrics.stopTimer();
+        return new Schedule(earliest, latest, slack, critical, projectLength, criticalCount);
+    }
+
+    private static int duration(int[] durations, int task) {
+        return durations == null ? 0 : durations[task];
+    }
+}
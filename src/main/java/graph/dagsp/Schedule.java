@@ -0,0 +1,68 @@
+package graph.dagsp;
+
+/**
+ * Earliest and latest start times of every task in a DAG schedule.
+ * Times count from 0 at the earliest source; a task's slack is how far it
+ * can slip without delaying the whole project, and the tasks with zero
+ * slack form the critical paths. The arrays are shared, so callers must
+ * not modify them.
+ */
+public final class Schedule {
+    private final int[] earliestStart;
+    private final int[] latestStart;
+    private final int[] slack;
+    private final boolean[] critical;
+    private final int projectLength;
+    private final int criticalCount;
+
+    Schedule(int[] earliestStart, int[] latestStart, int[] slack, boolean[] critical, int projectLength,
+             int criticalCount) {
+        this.earliestStart = earliestStart;
+        this.latestStart = latestStart;
+        this.slack = slack;
+        this.critical = critical;
+        this.projectLength = projectLength;
+        this.criticalCount = criticalCount;
+    }
+
+    public int[] getEarliestStart() {
+        return earliestStart;
+    }
+
+    public int[] getLatestStart() {
+        return latestStart;
+    }
+
+    public int[] getSlack() {
+        return slack;
+    }
+
+    public boolean[] getCritical() {
+        return critical;
+    }
+
+    public int earliestStart(int task) {
+        return earliestStart[task];
+    }
+
+    public int latestStart(int task) {
+        return latestStart[task];
+    }
+
+    public int slack(int task) {
+        return slack[task];
+    }
+
+    public boolean isCritical(int task) {
+        return critical[task];
+    }
+
+    // Time at which the last task finishes when everything starts as early as possible
+    public int getProjectLength() {
+        return projectLength;
+    }
+
+    public int getCriticalCount() {
+        return criticalCount;
+    }
+}
@@ -0,0 +1,227 @@
+package graph.model;
+
+import graph.util.IntArrayList;
+
+/**
+ * Immutable compressed-sparse-row graph. Forward and reverse adjacency are kept
+ * in flat int arrays: the edges of vertex v occupy [offsets[v], offsets[v + 1]).
+ * Edges keep their insertion order inside each row, so traversals visit
+ * neighbors in the same order as the equivalent {@link Graph}. The reverse
+ * arrays follow the {@link ReverseAdjacency} mode chosen on the builder.
+ */
+public final class CSRGraph implements IntGraph {
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final LazyTranspose reverse;
+
+    CSRGraph(int vertexCount, int[] offsets, int[] targets, int[] weights, ReverseAdjacency reverseMode,
+             int[][] reverse) {
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverse = new LazyTranspose(reverseMode, () -> transpose(vertexCount, offsets, targets), reverse);
+    }
+
+    public static CSRGraph copyOf(IntGraph graph) {
+        Builder builder = new Builder(graph.getVertexCount());
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = 0, degree = graph.outDegree(u); i < degree; i++) {
+                builder.addEdge(u, graph.neighborAt(u, i), graph.weightAt(u, i));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public int neighborAt(int vertex, int index) {
+        return targets[offsets[vertex] + index];
+    }
+
+    @Override
+    public int weightAt(int vertex, int index) {
+        return weights[offsets[vertex] + index];
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return reverse.inDegree(vertex);
+    }
+
+    @Override
+    public int reverseNeighborAt(int vertex, int index) {
+        return reverse.sourceAt(vertex, index);
+    }
+
+    @Override
+    public boolean hasReverseAdjacency() {
+        return reverse.isBuilt();
+    }
+
+    @Override
+    public void releaseReverseAdjacency() {
+        reverse.release();
+    }
+
+    @Override
+    public int getWeight(int from, int to) {
+        // Scan backwards so a repeated edge reports its latest weight, like Graph does
+        for (int e = offsets[from + 1] - 1; e >= offsets[from]; e--) {
+            if (targets[e] == to) {
+                return weights[e];
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Raw row access for callers that want to walk the arrays directly
+    public int edgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    public int edgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    public int edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Reverse CSR {offsets, sources}; each in-row lists its sources in ascending order
+    static int[][] transpose(int vertexCount, int[] offsets, int[] targets) {
+        int m = targets.length;
+        int[] reverseOffsets = new int[vertexCount + 1];
+        for (int e = 0; e < m; e++) {
+            reverseOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] cursor = new int[vertexCount];
+        System.arraycopy(reverseOffsets, 0, cursor, 0, vertexCount);
+        int[] sources = new int[m];
+        for (int u = 0; u < vertexCount; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                sources[cursor[targets[e]]++] = u;
+            }
+        }
+        return new int[][]{reverseOffsets, sources};
+    }
+
+    // Stable counting sort of edges by key; returns row offsets and fills order with edge ids
+    static int[] bucketEdges(int vertexCount, int[] keys, int edgeCount, int[] order) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[keys[e] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = new int[vertexCount];
+        System.arraycopy(offsets, 0, cursor, 0, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            order[cursor[keys[e]]++] = e;
+        }
+        return offsets;
+    }
+
+    public static class Builder {
+        private int vertexCount;
+        private ReverseAdjacency reverseMode = ReverseAdjacency.LAZY;
+        private final IntArrayList from = new IntArrayList();
+        private final IntArrayList to = new IntArrayList();
+        private final IntArrayList weight = new IntArrayList();
+
+        public Builder() {
+            this(0);
+        }
+
+        public Builder(int vertexCount) {
+            this.vertexCount = vertexCount;
+        }
+
+        public Builder setVertexCount(int vertexCount) {
+            this.vertexCount = vertexCount;
+            return this;
+        }
+
+        public Builder setReverseAdjacency(ReverseAdjacency reverseMode) {
+            this.reverseMode = reverseMode;
+            return this;
+        }
+
+        public Builder addEdge(int from, int to, int weight) {
+            this.from.add(from);
+            this.to.add(to);
+            this.weight.add(weight);
+            return this;
+        }
+
+        public int getEdgeCount() {
+            return from.size();
+        }
+
+        // Same result as build(), with degree counting and scatter spread across a fork-join pool
+        public CSRGraph buildParallel(int parallelism) {
+            return ParallelCSRBuilder.build(vertexCount, from.buffer(), to.buffer(), weight.buffer(),
+                    from.size(), reverseMode, parallelism);
+        }
+
+        public CSRGraph build() {
+            int m = from.size();
+            int[] edgeFrom = from.buffer();
+            int[] edgeTo = to.buffer();
+            int[] edgeWeight = weight.buffer();
+
+            for (int e = 0; e < m; e++) {
+                if (edgeFrom[e] < 0 || edgeFrom[e] >= vertexCount || edgeTo[e] < 0 || edgeTo[e] >= vertexCount) {
+                    throw new IllegalArgumentException("Edge " + edgeFrom[e] + "->" + edgeTo[e] +
+                            " is out of range for " + vertexCount + " vertices");
+                }
+            }
+
+            int[] order = new int[m];
+            int[] offsets = bucketEdges(vertexCount, edgeFrom, m, order);
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            for (int k = 0; k < m; k++) {
+                targets[k] = edgeTo[order[k]];
+                weights[k] = edgeWeight[order[k]];
+            }
+
+            int[][] reverse = reverseMode == ReverseAdjacency.EAGER ? transpose(vertexCount, offsets, targets) : null;
+            return new CSRGraph(vertexCount, offsets, targets, weights, reverseMode, reverse);
+        }
+    }
+}
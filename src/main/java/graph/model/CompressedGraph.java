@@ -0,0 +1,313 @@
+package graph.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph whose adjacency is stored as gap/varint-encoded bytes.
+ *
+ * Each row is sorted by target. The first target is stored as a zigzag
+ * varint relative to the row's own vertex id, later targets as the varint
+ * gap to the previous one, and every target is followed by its zigzag
+ * varint weight. Rows longer than {@value #BLOCK} edges carry a checkpoint
+ * (byte position and previous target) every {@value #BLOCK} edges, so
+ * positional access decodes at most {@value #BLOCK} entries. Sequential
+ * scans should use {@link #neighborCursor()}, which decodes in one pass.
+ */
+public final class CompressedGraph implements IntGraph {
+    static final int BLOCK_SHIFT = 4;
+    static final int BLOCK = 1 << BLOCK_SHIFT;
+
+    private final int vertexCount;
+    private final int[] edgeOffsets;
+    private final int[] byteOffsets;
+    private final byte[] data;
+    private final int[] checkpointOffsets;
+    private final int[] checkpointPositions;
+    private final int[] checkpointPrevious;
+    private final LazyTranspose reverse;
+
+    private CompressedGraph(int vertexCount, int[] edgeOffsets, int[] byteOffsets, byte[] data,
+                            int[] checkpointOffsets, int[] checkpointPositions, int[] checkpointPrevious,
+                            ReverseAdjacency reverseMode) {
+        this.vertexCount = vertexCount;
+        this.edgeOffsets = edgeOffsets;
+        this.byteOffsets = byteOffsets;
+        this.data = data;
+        this.checkpointOffsets = checkpointOffsets;
+        this.checkpointPositions = checkpointPositions;
+        this.checkpointPrevious = checkpointPrevious;
+        this.reverse = new LazyTranspose(reverseMode, () -> LazyTranspose.fromRows(this), null);
+    }
+
+    public static CompressedGraph compress(IntGraph graph) {
+        return compress(graph, ReverseAdjacency.LAZY);
+    }
+
+    public static CompressedGraph compress(IntGraph graph, ReverseAdjacency reverseMode) {
+        int n = graph.getVertexCount();
+        int[] edgeOffsets = new int[n + 1];
+        int[] checkpointOffsets = new int[n + 1];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            int degree = graph.outDegree(v);
+            edgeOffsets[v + 1] = edgeOffsets[v] + degree;
+            checkpointOffsets[v + 1] = checkpointOffsets[v] + checkpointCount(degree);
+            maxDegree = Math.max(maxDegree, degree);
+        }
+
+        int[] byteOffsets = new int[n + 1];
+        int[] checkpointPositions = new int[checkpointOffsets[n]];
+        int[] checkpointPrevious = new int[checkpointOffsets[n]];
+        ByteSink sink = new ByteSink((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, 3L * graph.getEdgeCount())));
+        long[] row = new long[maxDegree];
+
+        for (int v = 0; v < n; v++) {
+            byteOffsets[v] = sink.size;
+            int degree = graph.outDegree(v);
+            // Sort by target, breaking ties by insertion position so a repeated edge keeps its latest weight last
+            for (int i = 0; i < degree; i++) {
+                row[i] = ((long) graph.neighborAt(v, i) << 32) | i;
+            }
+            Arrays.sort(row, 0, degree);
+
+            int previous = v;
+            int checkpoint = checkpointOffsets[v];
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (row[i] >>> 32);
+                if (i > 0 && (i & (BLOCK - 1)) == 0) {
+                    checkpointPositions[checkpoint] = sink.size;
+                    checkpointPrevious[checkpoint] = previous;
+                    checkpoint++;
+                }
+                sink.writeVarint(i == 0 ? zigzag(target - v) : target - previous);
+                sink.writeVarint(zigzag(graph.weightAt(v, (int) row[i])));
+                previous = target;
+            }
+        }
+        byteOffsets[n] = sink.size;
+
+        CompressedGraph compressed = new CompressedGraph(n, edgeOffsets, byteOffsets,
+                Arrays.copyOf(sink.bytes, sink.size), checkpointOffsets, checkpointPositions,
+                checkpointPrevious, reverseMode);
+        if (reverseMode == ReverseAdjacency.EAGER) {
+            compressed.reverse.build();
+        }
+        return compressed;
+    }
+
+    // Heap bytes of the forward structure, for comparing against a CSR layout
+    public long byteSize() {
+        return data.length + 4L * (edgeOffsets.length + byteOffsets.length + checkpointOffsets.length
+                + checkpointPositions.length + checkpointPrevious.length);
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeOffsets[vertexCount];
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return edgeOffsets[vertex + 1] - edgeOffsets[vertex];
+    }
+
+    @Override
+    public int neighborAt(int vertex, int index) {
+        long entry = locate(vertex, index);
+        int pos = (int) (entry >>> 32);
+        int previous = (int) entry;
+        long target = readVarint(data, pos);
+        return index == 0 ? vertex + unzigzag((int) target) : previous + (int) target;
+    }
+
+    @Override
+    public int weightAt(int vertex, int index) {
+        int pos = (int) (locate(vertex, index) >>> 32);
+        pos = (int) (readVarint(data, pos) >>> 32);
+        return unzigzag((int) readVarint(data, pos));
+    }
+
+    @Override
+    public int getWeight(int from, int to) {
+        Cursor cursor = new Cursor();
+        cursor.reset(from);
+        int weight = 1;
+        while (cursor.next() && cursor.target() <= to) {
+            if (cursor.target() == to) {
+                weight = cursor.weight();
+            }
+        }
+        return weight;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        Cursor cursor = new Cursor();
+        cursor.reset(from);
+        while (cursor.next()) {
+            if (cursor.target() >= to) {
+                return cursor.target() == to;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public NeighborCursor neighborCursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return reverse.inDegree(vertex);
+    }
+
+    @Override
+    public int reverseNeighborAt(int vertex, int index) {
+        return reverse.sourceAt(vertex, index);
+    }
+
+    @Override
+    public boolean hasReverseAdjacency() {
+        return reverse.isBuilt();
+    }
+
+    @Override
+    public void releaseReverseAdjacency() {
+        reverse.release();
+    }
+
+    // Byte position of edge `index` in the high half, previous target in the low half
+    private long locate(int vertex, int index) {
+        int block = index >>> BLOCK_SHIFT;
+        int pos;
+        int previous;
+        int k;
+        if (block == 0) {
+            pos = byteOffsets[vertex];
+            previous = vertex;
+            k = 0;
+        } else {
+            int c = checkpointOffsets[vertex] + block - 1;
+            pos = checkpointPositions[c];
+            previous = checkpointPrevious[c];
+            k = block << BLOCK_SHIFT;
+        }
+        for (; k < index; k++) {
+            long gap = readVarint(data, pos);
+            previous = k == 0 ? vertex + unzigzag((int) gap) : previous + (int) gap;
+            pos = (int) (readVarint(data, (int) (gap >>> 32)) >>> 32);
+        }
+        return ((long) pos << 32) | (previous & 0xFFFFFFFFL);
+    }
+
+    private static int checkpointCount(int degree) {
+        return degree == 0 ? 0 : (degree - 1) >>> BLOCK_SHIFT;
+    }
+
+    // Decoded value in the low 32 bits, position after the varint in the high 32 bits
+    static long readVarint(byte[] data, int pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return ((long) pos << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private final class Cursor implements NeighborCursor {
+        private int vertex;
+        private int pos;
+        private int end;
+        private boolean first;
+        private int target;
+        private int weight;
+
+        @Override
+        public void reset(int vertex) {
+            this.vertex = vertex;
+            this.pos = byteOffsets[vertex];
+            this.end = byteOffsets[vertex + 1];
+            this.first = true;
+        }
+
+        @Override
+        public boolean next() {
+            if (pos >= end) {
+                return false;
+            }
+            long gap = readVarint(data, pos);
+            if (first) {
+                target = vertex + unzigzag((int) gap);
+                first = false;
+            } else {
+                target += (int) gap;
+            }
+            long w = readVarint(data, (int) (gap >>> 32));
+            weight = unzigzag((int) w);
+            pos = (int) (w >>> 32);
+            return true;
+        }
+
+        // Byte position in the high half, last target in the low half; the gap chain continues from it
+        @Override
+        public long position() {
+            return ((long) pos << 32) | (target & 0xFFFFFFFFL);
+        }
+
+        @Override
+        public void resume(int vertex, long position) {
+            this.vertex = vertex;
+            this.pos = (int) (position >>> 32);
+            this.end = byteOffsets[vertex + 1];
+            this.first = false;
+            this.target = (int) position;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeVarint(int value) {
+            if (bytes.length - size < 5) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
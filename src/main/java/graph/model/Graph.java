@@ -1,29 +1,65 @@
 package graph.model;
 
+import graph.util.LongIntHashMap;
+
 import java.util.*;
 
-public class Graph {
+public class Graph implements IntGraph {
     private int vertexCount;
+    private int edgeCount;
     private List<List<Integer>> adjacencyList;
-    private List<List<Integer>> reverseAdjacencyList;
-    private Map<String, Integer> weights;
+    private List<List<Integer>> reverseAdjacencyList; // null until needed, see reverseMode
+    private final ReverseAdjacency reverseMode;
+    private LongIntHashMap weights; // packed (from, to) -> weight
 
     public Graph(int vertexCount) {
+        this(vertexCount, ReverseAdjacency.LAZY);
+    }
+
+    public Graph(int vertexCount, ReverseAdjacency reverseMode) {
         this.vertexCount = vertexCount;
+        this.reverseMode = reverseMode;
         this.adjacencyList = new ArrayList<>();
-        this.reverseAdjacencyList = new ArrayList<>();
-        this.weights = new HashMap<>();
+        this.weights = new LongIntHashMap();
 
         for (int i = 0; i < vertexCount; i++) {
             adjacencyList.add(new ArrayList<>());
-            reverseAdjacencyList.add(new ArrayList<>());
+        }
+        if (reverseMode == ReverseAdjacency.EAGER) {
+            buildReverse();
         }
     }
 
     public void addEdge(int from, int to, int weight) {
         adjacencyList.get(from).add(to);
-        reverseAdjacencyList.get(to).add(from); // Build reverse graph for Kosaraju
-        weights.put(from + "-" + to, weight);
+        if (reverseAdjacencyList != null) {
+            reverseAdjacencyList.get(to).add(from); // Keep an existing transpose in sync
+        }
+        weights.put(LongIntHashMap.pack(from, to), weight);
+        edgeCount++;
+    }
+
+    // Removes every copy of the edge from -> to; returns false if there was none
+    public boolean removeEdge(int from, int to) {
+        if (!weights.remove(LongIntHashMap.pack(from, to))) {
+            return false;
+        }
+        edgeCount -= removeAll(adjacencyList.get(from), to);
+        if (reverseAdjacencyList != null) {
+            removeAll(reverseAdjacencyList.get(to), from);
+        }
+        return true;
+    }
+
+    private static int removeAll(List<Integer> list, int value) {
+        int removed = 0;
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i) == value) {
+                list.remove(i);
+                removed++;
+            }
+        }
+        return removed;
     }
 
     public List<Integer> getNeighbors(int vertex) {
@@ -31,19 +67,87 @@ public class Graph {
     }
 
     public List<Integer> getReverseNeighbors(int vertex) {
-        return reverseAdjacencyList.get(vertex);
+        return reverse().get(vertex);
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return adjacencyList.get(vertex).size();
+    }
+
+    @Override
+    public int neighborAt(int vertex, int index) {
+        return adjacencyList.get(vertex).get(index);
+    }
+
+    @Override
+    public int weightAt(int vertex, int index) {
+        return getWeight(vertex, adjacencyList.get(vertex).get(index));
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return reverse().get(vertex).size();
+    }
+
+    @Override
+    public int reverseNeighborAt(int vertex, int index) {
+        return reverse().get(vertex).get(index);
     }
 
+    @Override
     public int getWeight(int from, int to) {
-        return weights.getOrDefault(from + "-" + to, 1);
+        return weights.get(LongIntHashMap.pack(from, to), 1);
     }
 
+    @Override
     public int getVertexCount() {
         return vertexCount;
     }
 
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
     public boolean hasEdge(int from, int to) {
-        return weights.containsKey(from + "-" + to);
+        return weights.containsKey(LongIntHashMap.pack(from, to));
+    }
+
+    @Override
+    public boolean hasReverseAdjacency() {
+        return reverseAdjacencyList != null;
+    }
+
+    @Override
+    public void releaseReverseAdjacency() {
+        if (reverseMode == ReverseAdjacency.LAZY) {
+            reverseAdjacencyList = null;
+        }
+    }
+
+    private List<List<Integer>> reverse() {
+        if (reverseAdjacencyList == null) {
+            if (reverseMode == ReverseAdjacency.DISABLED) {
+                throw new IllegalStateException("Reverse adjacency is disabled for this graph");
+            }
+            buildReverse();
+        }
+        return reverseAdjacencyList;
+    }
+
+    private void buildReverse() {
+        List<List<Integer>> reverse = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            reverse.add(new ArrayList<>());
+        }
+        for (int u = 0; u < vertexCount; u++) {
+            for (int v : adjacencyList.get(u)) {
+                reverse.get(v).add(u);
+            }
+        }
+        reverseAdjacencyList = reverse;
     }
 
     // Helper method to get all edges for debugging
@@ -0,0 +1,47 @@
+package graph.model;
+
+// Default cursor for graphs with cheap positional access
+final class IndexedNeighborCursor implements NeighborCursor {
+    private final IntGraph graph;
+    private int vertex;
+    private int index;
+    private int degree;
+
+    IndexedNeighborCursor(IntGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public void reset(int vertex) {
+        this.vertex = vertex;
+        this.index = -1;
+        this.degree = graph.outDegree(vertex);
+    }
+
+    @Override
+    public boolean next() {
+        return ++index < degree;
+    }
+
+    @Override
+    public long position() {
+        return index;
+    }
+
+    @Override
+    public void resume(int vertex, long position) {
+        this.vertex = vertex;
+        this.index = (int) position;
+        this.degree = graph.outDegree(vertex);
+    }
+
+    @Override
+    public int target() {
+        return graph.neighborAt(vertex, index);
+    }
+
+    @Override
+    public int weight() {
+        return graph.weightAt(vertex, index);
+    }
+}
@@ -0,0 +1,40 @@
+package graph.model;
+
+/**
+ * Read-only, primitive view of a weighted directed graph.
+ * Neighbors are addressed by position (0 .. outDegree - 1), so traversals
+ * can walk adjacency without boxing vertex ids.
+ */
+public interface IntGraph {
+    int getVertexCount();
+
+    int getEdgeCount();
+
+    int outDegree(int vertex);
+
+    int neighborAt(int vertex, int index);
+
+    int weightAt(int vertex, int index);
+
+    int inDegree(int vertex);
+
+    int reverseNeighborAt(int vertex, int index);
+
+    int getWeight(int from, int to);
+
+    boolean hasEdge(int from, int to);
+
+    // Sequential out-edge iterator; encoded graphs override this with a decoding cursor
+    default NeighborCursor neighborCursor() {
+        return new IndexedNeighborCursor(this);
+    }
+
+    // Whether in-neighbor arrays currently exist; lazy implementations build them on first use
+    default boolean hasReverseAdjacency() {
+        return true;
+    }
+
+    // Drops a lazily built transpose; it is rebuilt if in-neighbors are requested again
+    default void releaseReverseAdjacency() {
+    }
+}
@@ -0,0 +1,99 @@
+package graph.model;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * In-neighbor arrays {offsets, sources} of a graph, built on first use and,
+ * in {@link ReverseAdjacency#LAZY} mode, dropped again on release. Each array
+ * is read once per lookup, so a concurrent release cannot null it mid-call;
+ * a rebuilt transpose has the same contents, so arrays from different builds
+ * still agree.
+ */
+final class LazyTranspose {
+    private final ReverseAdjacency mode;
+    private final Supplier<int[][]> builder;
+    private volatile int[] offsets;
+    private volatile int[] sources;
+
+    // built holds eagerly computed arrays, or null to build on demand
+    LazyTranspose(ReverseAdjacency mode, Supplier<int[][]> builder, int[][] built) {
+        this.mode = mode;
+        this.builder = builder;
+        if (built != null) {
+            this.offsets = built[0];
+            this.sources = built[1];
+        }
+    }
+
+    int inDegree(int vertex) {
+        int[] revOffsets = offsets();
+        return revOffsets[vertex + 1] - revOffsets[vertex];
+    }
+
+    int sourceAt(int vertex, int index) {
+        int[] revOffsets = offsets();
+        int[] revSources = sources();
+        return revSources[revOffsets[vertex] + index];
+    }
+
+    boolean isBuilt() {
+        return sources != null;
+    }
+
+    synchronized void release() {
+        if (mode == ReverseAdjacency.LAZY) {
+            sources = null;
+            offsets = null;
+        }
+    }
+
+    private int[] offsets() {
+        int[] revOffsets = offsets;
+        return revOffsets != null ? revOffsets : build()[0];
+    }
+
+    private int[] sources() {
+        int[] revSources = sources;
+        return revSources != null ? revSources : build()[1];
+    }
+
+    // Also called up front for EAGER graphs that have no arrays to hand in
+    synchronized int[][] build() {
+        if (sources != null && offsets != null) {
+            return new int[][]{offsets, sources};
+        }
+        if (mode == ReverseAdjacency.DISABLED) {
+            throw new IllegalStateException("Reverse adjacency is disabled for this graph");
+        }
+        int[][] reverse = builder.get();
+        offsets = reverse[0];
+        sources = reverse[1];
+        return reverse;
+    }
+
+    // Transpose of any graph, reading each row twice through its cursor
+    static int[][] fromRows(IntGraph graph) {
+        int n = graph.getVertexCount();
+        int[] revOffsets = new int[n + 1];
+        NeighborCursor cursor = graph.neighborCursor();
+        for (int u = 0; u < n; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                revOffsets[cursor.target() + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            revOffsets[v + 1] += revOffsets[v];
+        }
+        int[] fill = Arrays.copyOf(revOffsets, n);
+        int[] revSources = new int[graph.getEdgeCount()];
+        for (int u = 0; u < n; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                revSources[fill[cursor.target()]++] = u;
+            }
+        }
+        return new int[][]{revOffsets, revSources};
+    }
+}
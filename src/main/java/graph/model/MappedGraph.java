@@ -0,0 +1,95 @@
+package graph.model;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph whose forward arrays live in memory-mapped buffers rather than on
+ * the heap. The reverse adjacency is not stored in the file; it is built on the
+ * heap the first time a caller asks for in-neighbors.
+ */
+public final class MappedGraph implements IntGraph {
+    private final int vertexCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final LazyTranspose reverse = new LazyTranspose(ReverseAdjacency.LAZY, () -> LazyTranspose.fromRows(this),
+            null);
+
+    public MappedGraph(int vertexCount, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        if (offsets.limit() != vertexCount + 1 || targets.limit() != offsets.get(vertexCount)
+                || weights.limit() != targets.limit()) {
+            throw new IllegalArgumentException("Offset, target and weight sections do not match " +
+                    vertexCount + " vertices");
+        }
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return targets.limit();
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return offsets.get(vertex + 1) - offsets.get(vertex);
+    }
+
+    @Override
+    public int neighborAt(int vertex, int index) {
+        return targets.get(offsets.get(vertex) + index);
+    }
+
+    @Override
+    public int weightAt(int vertex, int index) {
+        return weights.get(offsets.get(vertex) + index);
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return reverse.inDegree(vertex);
+    }
+
+    @Override
+    public int reverseNeighborAt(int vertex, int index) {
+        return reverse.sourceAt(vertex, index);
+    }
+
+    @Override
+    public boolean hasReverseAdjacency() {
+        return reverse.isBuilt();
+    }
+
+    // Frees the heap transpose; the mapped forward arrays are untouched
+    @Override
+    public void releaseReverseAdjacency() {
+        reverse.release();
+    }
+
+    @Override
+    public int getWeight(int from, int to) {
+        for (int e = offsets.get(from + 1) - 1; e >= offsets.get(from); e--) {
+            if (targets.get(e) == to) {
+                return weights.get(e);
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        for (int e = offsets.get(from), end = offsets.get(from + 1); e < end; e++) {
+            if (targets.get(e) == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package graph.model;
+
+/**
+ * Forward-only iterator over the out-edges of one vertex at a time.
+ * A cursor is reusable: call {@link #reset(int)} for each vertex, then
+ * {@link #next()} until it returns false. A depth-first search that leaves
+ * a row half-read can save {@link #position()} and later {@link #resume}
+ * from it instead of re-seeking by index.
+ */
+public interface NeighborCursor {
+    void reset(int vertex);
+
+    boolean next();
+
+    int target();
+
+    int weight();
+
+    // Resume point just past the edge last returned by next(); only valid after next() returned true
+    long position();
+
+    // Continues vertex's row from a saved position, so next() returns the edge after it
+    void resume(int vertex, long position);
+}
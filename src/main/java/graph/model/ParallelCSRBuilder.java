@@ -0,0 +1,150 @@
+package graph.model;
+
+import graph.util.ParallelRange;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds a {@link CSRGraph} from parallel edge arrays using every core.
+ *
+ * Edges are bucketed with a two-level stable counting sort: edge chunks first
+ * scatter into coarse vertex-range buckets at precomputed positions, then each
+ * bucket is sorted into rows on its own. No atomics are needed, and rows keep
+ * insertion order, so the result is identical to the sequential builder.
+ */
+public final class ParallelCSRBuilder {
+
+    private ParallelCSRBuilder() {
+    }
+
+    public static CSRGraph build(int vertexCount, int[] from, int[] to, int[] weights, int edgeCount,
+                                 ReverseAdjacency reverseMode, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return build(pool, vertexCount, from, to, weights, edgeCount, reverseMode);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static CSRGraph build(ForkJoinPool pool, int vertexCount, int[] from, int[] to, int[] weights,
+                                 int edgeCount, ReverseAdjacency reverseMode) {
+        int grain = ParallelRange.grainFor(pool, edgeCount);
+        ParallelRange.forEach(pool, 0, edgeCount, grain, (lo, hi) -> {
+            for (int e = lo; e < hi; e++) {
+                if (from[e] < 0 || from[e] >= vertexCount || to[e] < 0 || to[e] >= vertexCount) {
+                    throw new IllegalArgumentException("Edge " + from[e] + "->" + to[e] +
+                            " is out of range for " + vertexCount + " vertices");
+                }
+            }
+        });
+
+        int[] offsets = new int[vertexCount + 1];
+        int[] forwardOrder = sortByKey(pool, from, edgeCount, vertexCount, offsets);
+
+        int[] targets = new int[edgeCount];
+        int[] edgeWeights = new int[edgeCount];
+        ParallelRange.forEach(pool, 0, edgeCount, grain, (lo, hi) -> {
+            for (int k = lo; k < hi; k++) {
+                int e = forwardOrder[k];
+                targets[k] = to[e];
+                edgeWeights[k] = weights[e];
+            }
+        });
+
+        int[][] reverse = reverseMode == ReverseAdjacency.EAGER
+                ? transpose(pool, vertexCount, offsets, targets) : null;
+        return new CSRGraph(vertexCount, offsets, targets, edgeWeights, reverseMode, reverse);
+    }
+
+    // Parallel equivalent of CSRGraph.transpose: in-rows list their sources in ascending order
+    static int[][] transpose(ForkJoinPool pool, int vertexCount, int[] offsets, int[] targets) {
+        int edgeCount = targets.length;
+        int[] rowOf = new int[edgeCount];
+        ParallelRange.forEach(pool, 0, vertexCount, ParallelRange.grainFor(pool, vertexCount), (lo, hi) -> {
+            for (int u = lo; u < hi; u++) {
+                Arrays.fill(rowOf, offsets[u], offsets[u + 1], u);
+            }
+        });
+
+        int[] reverseOffsets = new int[vertexCount + 1];
+        int[] reverseOrder = sortByKey(pool, targets, edgeCount, vertexCount, reverseOffsets);
+        ParallelRange.forEach(pool, 0, edgeCount, ParallelRange.grainFor(pool, edgeCount), (lo, hi) -> {
+            for (int k = lo; k < hi; k++) {
+                reverseOrder[k] = rowOf[reverseOrder[k]];
+            }
+        });
+        return new int[][]{reverseOffsets, reverseOrder};
+    }
+
+    // Stable parallel counting sort of edge ids by key; fills offsets (length n + 1) with row starts
+    static int[] sortByKey(ForkJoinPool pool, int[] keys, int edgeCount, int vertexCount, int[] offsets) {
+        int parallelism = pool.getParallelism();
+        int bucketWidth = Math.max(1, Integer.highestOneBit(Math.max(1, vertexCount / (parallelism * 4))));
+        int shift = Integer.numberOfTrailingZeros(bucketWidth);
+        int buckets = ((vertexCount - 1) >> shift) + 1;
+        int chunks = Math.max(1, Math.min(parallelism * 4, edgeCount / 4096));
+        int chunkSize = (edgeCount + chunks - 1) / chunks;
+
+        // Pass 1: per-chunk bucket histograms
+        int[] positions = new int[chunks * buckets];
+        ParallelRange.forEach(pool, 0, chunks, 1, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                int base = c * buckets;
+                for (int e = c * chunkSize, end = Math.min(edgeCount, e + chunkSize); e < end; e++) {
+                    positions[base + (keys[e] >> shift)]++;
+                }
+            }
+        });
+
+        // Bucket-major, chunk-minor prefix sum keeps the scatter stable
+        int[] bucketStart = new int[buckets + 1];
+        int running = 0;
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b] = running;
+            for (int c = 0; c < chunks; c++) {
+                int count = positions[c * buckets + b];
+                positions[c * buckets + b] = running;
+                running += count;
+            }
+        }
+        bucketStart[buckets] = running;
+
+        // Pass 2: each chunk scatters into its own reserved slots
+        int[] bucketed = new int[edgeCount];
+        ParallelRange.forEach(pool, 0, chunks, 1, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                int base = c * buckets;
+                for (int e = c * chunkSize, end = Math.min(edgeCount, e + chunkSize); e < end; e++) {
+                    bucketed[positions[base + (keys[e] >> shift)]++] = e;
+                }
+            }
+        });
+
+        // Pass 3: counting sort inside each bucket, which owns a disjoint vertex range
+        int[] order = new int[edgeCount];
+        ParallelRange.forEach(pool, 0, buckets, 1, (lo, hi) -> {
+            int[] cursor = new int[bucketWidth + 1];
+            for (int b = lo; b < hi; b++) {
+                int firstVertex = b << shift;
+                int width = Math.min(vertexCount - firstVertex, bucketWidth);
+                Arrays.fill(cursor, 0);
+                for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                    cursor[keys[bucketed[k]] - firstVertex + 1]++;
+                }
+                cursor[0] = bucketStart[b];
+                for (int i = 0; i < width; i++) {
+                    cursor[i + 1] += cursor[i];
+                    offsets[firstVertex + i] = cursor[i];
+                }
+                for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                    int e = bucketed[k];
+                    order[cursor[keys[e] - firstVertex]++] = e;
+                }
+            }
+        });
+        offsets[vertexCount] = edgeCount;
+        return order;
+    }
+}
@@ -0,0 +1,13 @@
+package graph.model;
+
+/**
+ * How a graph provides in-neighbors (the transpose used by Kosaraju).
+ */
+public enum ReverseAdjacency {
+    /** Built together with the forward adjacency. */
+    EAGER,
+    /** Built on first in-neighbor access, cached, and releasable afterwards. */
+    LAZY,
+    /** Never built; in-neighbor access throws. */
+    DISABLED
+}
@@ -0,0 +1,245 @@
+package graph.reorder;
+
+import graph.model.CSRGraph;
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A relabeling of vertex ids. Strategies place vertices that are close in
+ * the graph close in id space, so DFS stacks and relaxation sweeps touch
+ * neighboring array slots instead of jumping randomly through memory.
+ * Results computed on the relabeled graph are mapped back with the
+ * {@code toOriginal} helpers.
+ */
+public final class VertexOrdering {
+
+    public enum Strategy {
+        BFS, DEGREE, RCM
+    }
+
+    private final int[] newId;
+    private final int[] oldId;
+
+    private VertexOrdering(int[] oldId) {
+        this.oldId = oldId;
+        this.newId = new int[oldId.length];
+        for (int v = 0; v < oldId.length; v++) {
+            newId[oldId[v]] = v;
+        }
+    }
+
+    public static VertexOrdering compute(IntGraph graph, Strategy strategy) {
+        switch (strategy) {
+            case BFS:
+                return bfs(graph);
+            case DEGREE:
+                return degreeSorted(graph);
+            case RCM:
+                return reverseCuthillMcKee(graph);
+            default:
+                throw new IllegalArgumentException("Unknown ordering strategy " + strategy);
+        }
+    }
+
+    public static VertexOrdering identity(int vertexCount) {
+        int[] order = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            order[v] = v;
+        }
+        return new VertexOrdering(order);
+    }
+
+    // Uniformly random ids; used to model inputs whose ids carry no locality
+    public static VertexOrdering random(int vertexCount, long seed) {
+        int[] order = identity(vertexCount).oldId;
+        Random random = new Random(seed);
+        for (int i = vertexCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return new VertexOrdering(order);
+    }
+
+    // Breadth-first order over the undirected graph, restarting at the lowest unvisited id
+    public static VertexOrdering bfs(IntGraph graph) {
+        return breadthFirst(graph, false);
+    }
+
+    // Highest total degree first, so hub vertices share cache lines
+    public static VertexOrdering degreeSorted(IntGraph graph) {
+        int n = graph.getVertexCount();
+        boolean hadReverse = graph.hasReverseAdjacency();
+        long[] keyed = new long[n];
+        for (int v = 0; v < n; v++) {
+            long degree = (long) graph.outDegree(v) + graph.inDegree(v);
+            keyed[v] = ((Integer.MAX_VALUE - degree) << 32) | v;
+        }
+        if (!hadReverse) {
+            graph.releaseReverseAdjacency();
+        }
+        Arrays.sort(keyed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keyed[i];
+        }
+        return new VertexOrdering(order);
+    }
+
+    // Reverse Cuthill-McKee: BFS from low-degree vertices, visiting neighbors by increasing degree
+    public static VertexOrdering reverseCuthillMcKee(IntGraph graph) {
+        VertexOrdering cuthillMcKee = breadthFirst(graph, true);
+        int n = cuthillMcKee.oldId.length;
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            reversed[i] = cuthillMcKee.oldId[n - 1 - i];
+        }
+        return new VertexOrdering(reversed);
+    }
+
+    private static VertexOrdering breadthFirst(IntGraph graph, boolean cuthillMcKee) {
+        int n = graph.getVertexCount();
+        boolean hadReverse = graph.hasReverseAdjacency();
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            degree[v] = graph.outDegree(v) + graph.inDegree(v);
+        }
+
+        int[] starts = identity(n).oldId;
+        if (cuthillMcKee) {
+            starts = sortByDegree(starts, 0, n, degree);
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        IntArrayList frontier = new IntArrayList();
+        NeighborCursor cursor = graph.neighborCursor();
+
+        for (int start : starts) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int u = order[head++];
+                frontier.clear();
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int w = cursor.target();
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        frontier.add(w);
+                    }
+                }
+                for (int i = 0, d = graph.inDegree(u); i < d; i++) {
+                    int w = graph.reverseNeighborAt(u, i);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        frontier.add(w);
+                    }
+                }
+                int[] next = frontier.buffer();
+                if (cuthillMcKee) {
+                    next = sortByDegree(next, 0, frontier.size(), degree);
+                }
+                System.arraycopy(next, 0, order, tail, frontier.size());
+                tail += frontier.size();
+            }
+        }
+
+        if (!hadReverse) {
+            graph.releaseReverseAdjacency();
+        }
+        return new VertexOrdering(order);
+    }
+
+    private static int[] sortByDegree(int[] vertices, int from, int to, int[] degree) {
+        long[] keyed = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keyed[i - from] = ((long) degree[vertices[i]] << 32) | vertices[i];
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    public int size() {
+        return oldId.length;
+    }
+
+    public int toRelabeled(int originalVertex) {
+        return newId[originalVertex];
+    }
+
+    public int toOriginal(int relabeledVertex) {
+        return oldId[relabeledVertex];
+    }
+
+    // Copy of the graph in the relabeled id space; row v holds the edges of toOriginal(v)
+    public CSRGraph apply(IntGraph graph) {
+        int n = graph.getVertexCount();
+        if (n != oldId.length) {
+            throw new IllegalArgumentException("Ordering covers " + oldId.length + " vertices, graph has " + n);
+        }
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        NeighborCursor cursor = graph.neighborCursor();
+        for (int v = 0; v < n; v++) {
+            cursor.reset(oldId[v]);
+            while (cursor.next()) {
+                builder.addEdge(v, newId[cursor.target()], cursor.weight());
+            }
+        }
+        return builder.build();
+    }
+
+    public List<Integer> toOriginal(List<Integer> relabeledVertices) {
+        List<Integer> mapped = new ArrayList<>(relabeledVertices.size());
+        for (int v : relabeledVertices) {
+            mapped.add(oldId[v]);
+        }
+        return mapped;
+    }
+
+    public List<List<Integer>> componentsToOriginal(List<List<Integer>> relabeledComponents) {
+        List<List<Integer>> mapped = new ArrayList<>(relabeledComponents.size());
+        for (List<Integer> component : relabeledComponents) {
+            mapped.add(toOriginal(component));
+        }
+        return mapped;
+    }
+
+    // Per-vertex values (distances, component ids, ...) re-indexed by original vertex id
+    public int[] valuesToOriginal(int[] valuesByRelabeledVertex) {
+        int[] mapped = new int[valuesByRelabeledVertex.length];
+        for (int v = 0; v < mapped.length; v++) {
+            mapped[oldId[v]] = valuesByRelabeledVertex[v];
+        }
+        return mapped;
+    }
+
+    // Mean |u - v| over all edges: a cheap proxy for how far a traversal jumps in memory
+    public static double averageEdgeSpan(IntGraph graph) {
+        long total = 0;
+        NeighborCursor cursor = graph.neighborCursor();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                total += Math.abs(cursor.target() - u);
+            }
+        }
+        return graph.getEdgeCount() == 0 ? 0 : (double) total / graph.getEdgeCount();
+    }
+}
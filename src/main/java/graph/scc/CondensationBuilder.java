@@ -0,0 +1,115 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+import graph.util.LongIntHashMap;
+import graph.util.ParallelRange;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds the condensation DAG without per-edge allocation. Inter-component
+ * edges are deduplicated on packed (sccU, sccV) longs; each distinct pair
+ * keeps its position of first appearance, so the condensation lists its
+ * edges in the same order as a scan over source vertices would. In parallel
+ * mode every chunk of source vertices dedups into its own table and the
+ * tables are folded together in chunk order, which gives the same result.
+ */
+final class CondensationBuilder {
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private CondensationBuilder() {
+    }
+
+    static CSRGraph build(IntGraph graph, List<List<Integer>> sccs, WeightAggregate aggregate) {
+        int[] vertexToSCC = vertexToSCC(graph, sccs);
+        Pairs pairs = new Pairs();
+        pairs.scan(graph, vertexToSCC, 0, graph.getVertexCount(), aggregate);
+        return pairs.toGraph(sccs.size());
+    }
+
+    static CSRGraph build(IntGraph graph, List<List<Integer>> sccs, WeightAggregate aggregate, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] vertexToSCC = vertexToSCC(graph, sccs);
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_WORKER, n / 1024));
+        int chunkSize = (n + chunks - 1) / Math.max(1, chunks);
+        Pairs[] partial = new Pairs[chunks];
+        ParallelRange.forEach(pool, 0, chunks, 1, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                partial[c] = new Pairs();
+                partial[c].scan(graph, vertexToSCC, c * chunkSize, Math.min(n, (c + 1) * chunkSize), aggregate);
+            }
+        });
+
+        Pairs merged = partial[0];
+        for (int c = 1; c < chunks; c++) {
+            merged.fold(partial[c], aggregate);
+        }
+        return merged.toGraph(sccs.size());
+    }
+
+    static int[] vertexToSCC(IntGraph graph, List<List<Integer>> sccs) {
+        if (sccs instanceof SCCResult) {
+            return ((SCCResult) sccs).componentIds();
+        }
+        int[] vertexToSCC = new int[graph.getVertexCount()];
+        for (int i = 0; i < sccs.size(); i++) {
+            for (int vertex : sccs.get(i)) {
+                vertexToSCC[vertex] = i;
+            }
+        }
+        return vertexToSCC;
+    }
+
+    // Distinct component pairs in order of first appearance, with their aggregated weight
+    private static final class Pairs {
+        private final LongIntHashMap position = new LongIntHashMap();
+        private final IntArrayList from = new IntArrayList();
+        private final IntArrayList to = new IntArrayList();
+        private final IntArrayList weight = new IntArrayList();
+
+        void scan(IntGraph graph, int[] vertexToSCC, int start, int end, WeightAggregate aggregate) {
+            NeighborCursor cursor = graph.neighborCursor();
+            for (int u = start; u < end; u++) {
+                int sccU = vertexToSCC[u];
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int sccV = vertexToSCC[cursor.target()];
+                    if (sccU != sccV) {
+                        add(sccU, sccV, aggregate.initial(cursor.weight()), aggregate);
+                    }
+                }
+            }
+        }
+
+        void fold(Pairs other, WeightAggregate aggregate) {
+            for (int i = 0; i < other.from.size(); i++) {
+                add(other.from.get(i), other.to.get(i), other.weight.get(i), aggregate);
+            }
+        }
+
+        private void add(int sccU, int sccV, int w, WeightAggregate aggregate) {
+            long key = LongIntHashMap.pack(sccU, sccV);
+            int slot = position.get(key, -1);
+            if (slot < 0) {
+                position.put(key, from.size());
+                from.add(sccU);
+                to.add(sccV);
+                weight.add(w);
+            } else {
+                weight.set(slot, aggregate.combine(weight.get(slot), w));
+            }
+        }
+
+        CSRGraph toGraph(int componentCount) {
+            CSRGraph.Builder builder = new CSRGraph.Builder(componentCount);
+            for (int i = 0; i < from.size(); i++) {
+                builder.addEdge(from.get(i), to.get(i), weight.get(i));
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.model.IntGraph;
+import graph.model.ReverseAdjacency;
+import graph.util.IntArrayList;
+import graph.util.LongIntHashMap;
+import metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strongly connected components of a graph that changes one edge at a time.
+ *
+ * The condensation is kept as a multiset of component pairs: for each pair
+ * it counts the original edges between them, with per-component in/out
+ * lists for traversal. Inserting an edge u -> v merges exactly the
+ * components that lie on a condensation path from v's component back to
+ * u's; deleting an edge inside a component re-runs Tarjan on that
+ * component only and splits it if needed. Edges between different
+ * components only touch their pair count.
+ *
+ * Component ids are stable while a component lives and are recycled after
+ * it is merged away, so they are not dense; {@link #components()} and
+ * {@link #buildCondensation()} renumber them in ascending id order.
+ */
+public class DynamicSCC {
+    private final Graph graph;
+    private final Metrics metrics;
+    private final int[] componentOf;
+    private final List<IntArrayList> members = new ArrayList<>();
+    private final List<IntArrayList> outComponents = new ArrayList<>();
+    private final List<IntArrayList> inComponents = new ArrayList<>();
+    private final IntArrayList freeIds = new IntArrayList();
+    private final LongIntHashMap edgeCounts = new LongIntHashMap();
+    private int componentCount;
+
+    // Scratch: stamped marks over component ids, Tarjan state over vertices
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private int stamp;
+    private final int[] indices;
+    private final int[] lowlinks;
+    private final int[] edgeCursor;
+    private final IntArrayList callStack = new IntArrayList();
+    private final IntArrayList sccStack = new IntArrayList();
+
+    public DynamicSCC(int vertexCount, Metrics metrics) {
+        this(new Graph(vertexCount), metrics);
+    }
+
+    public DynamicSCC(IntGraph initial, Metrics metrics) {
+        int n = initial.getVertexCount();
+        this.metrics = metrics;
+        this.graph = new Graph(n, ReverseAdjacency.EAGER);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = initial.outDegree(u); i < degree; i++) {
+                graph.addEdge(u, initial.neighborAt(u, i), initial.weightAt(u, i));
+            }
+        }
+        this.componentOf = new int[n];
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.indices = new int[n];
+        this.lowlinks = new int[n];
+        this.edgeCursor = new int[n];
+
+        for (List<Integer> scc : new SCCFinder(metrics).findSCCsTarjan(graph)) {
+            int id = newComponent();
+            IntArrayList list = members.get(id);
+            for (int v : scc) {
+                componentOf[v] = id;
+                list.add(v);
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = graph.outDegree(u); i < degree; i++) {
+                int cu = componentOf[u];
+                int cv = componentOf[graph.neighborAt(u, i)];
+                if (cu != cv) {
+                    addComponentEdge(cu, cv, 1);
+                }
+            }
+        }
+    }
+
+    // Returns true if the edge closed a cycle and merged components
+    public boolean insertEdge(int from, int to, int weight) {
+        metrics.incrementOperation("dynamic_inserts");
+        graph.addEdge(from, to, weight);
+        int cu = componentOf[from];
+        int cv = componentOf[to];
+        if (cu == cv) {
+            return false;
+        }
+        IntArrayList cycle = componentsBetween(cv, cu);
+        if (cycle == null) {
+            addComponentEdge(cu, cv, 1);
+            return false;
+        }
+        merge(cycle);
+        return true;
+    }
+
+    // Removes every copy of from -> to; returns false if the edge did not exist
+    public boolean deleteEdge(int from, int to) {
+        int copies = 0;
+        for (int i = 0, degree = graph.outDegree(from); i < degree; i++) {
+            if (graph.neighborAt(from, i) == to) {
+                copies++;
+            }
+        }
+        if (!graph.removeEdge(from, to)) {
+            return false;
+        }
+        metrics.incrementOperation("dynamic_deletes");
+        int cu = componentOf[from];
+        int cv = componentOf[to];
+        if (cu != cv) {
+            removeComponentEdge(cu, cv, copies);
+        } else {
+            split(cu);
+        }
+        return true;
+    }
+
+    public int componentOf(int vertex) {
+        return componentOf[vertex];
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return componentOf[u] == componentOf[v];
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public int condensationEdgeCount() {
+        return edgeCounts.size();
+    }
+
+    public boolean hasCondensationEdge(int fromComponent, int toComponent) {
+        return edgeCounts.containsKey(LongIntHashMap.pack(fromComponent, toComponent));
+    }
+
+    public IntGraph getGraph() {
+        return graph;
+    }
+
+    // Live components in ascending id order
+    public SCCResult components() {
+        SCCResult.Collector sccs = new SCCResult.Collector(componentOf.length);
+        for (IntArrayList list : members) {
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    sccs.add(list.get(i));
+                }
+                sccs.close();
+            }
+        }
+        return sccs.build();
+    }
+
+    // Condensation DAG whose vertex i is the i-th entry of components()
+    public CSRGraph buildCondensation() {
+        int[] dense = new int[members.size()];
+        int next = 0;
+        for (int id = 0; id < members.size(); id++) {
+            dense[id] = members.get(id) != null ? next++ : -1;
+        }
+        CSRGraph.Builder builder = new CSRGraph.Builder(componentCount);
+        for (int id = 0; id < members.size(); id++) {
+            if (members.get(id) != null) {
+                IntArrayList out = outComponents.get(id);
+                for (int i = 0; i < out.size(); i++) {
+                    builder.addEdge(dense[id], dense[out.get(i)], 1);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    // Components on some condensation path source ->* target, or null if target is unreachable
+    private IntArrayList componentsBetween(int source, int target) {
+        int forward = ++stamp;
+        IntArrayList stack = new IntArrayList();
+        forwardMark[source] = forward;
+        stack.push(source);
+        long searched = 0;
+        while (!stack.isEmpty()) {
+            int c = stack.pop();
+            searched++;
+            if (c == target) {
+                continue;
+            }
+            IntArrayList out = outComponents.get(c);
+            for (int i = 0; i < out.size(); i++) {
+                int d = out.get(i);
+                if (forwardMark[d] != forward) {
+                    forwardMark[d] = forward;
+                    stack.push(d);
+                }
+            }
+        }
+        metrics.addOperations("dynamic_components_searched", searched);
+        if (forwardMark[target] != forward) {
+            return null;
+        }
+
+        IntArrayList between = new IntArrayList();
+        backwardMark[target] = forward;
+        stack.push(target);
+        while (!stack.isEmpty()) {
+            int c = stack.pop();
+            between.add(c);
+            if (c == source) {
+                continue;
+            }
+            IntArrayList in = inComponents.get(c);
+            for (int i = 0; i < in.size(); i++) {
+                int d = in.get(i);
+                if (forwardMark[d] == forward && backwardMark[d] != forward) {
+                    backwardMark[d] = forward;
+                    stack.push(d);
+                }
+            }
+        }
+        return between;
+    }
+
+    // Folds the given components into the largest of them
+    private void merge(IntArrayList merged) {
+        metrics.incrementOperation("dynamic_merges");
+        int target = merged.get(0);
+        for (int i = 1; i < merged.size(); i++) {
+            if (members.get(merged.get(i)).size() > members.get(target).size()) {
+                target = merged.get(i);
+            }
+        }
+        IntArrayList targetMembers = members.get(target);
+        for (int i = 0; i < merged.size(); i++) {
+            int c = merged.get(i);
+            detach(c);
+            if (c != target) {
+                IntArrayList list = members.get(c);
+                for (int k = 0; k < list.size(); k++) {
+                    componentOf[list.get(k)] = target;
+                    targetMembers.add(list.get(k));
+                }
+                metrics.addOperations("dynamic_vertices_relabeled", list.size());
+                releaseComponent(c);
+            }
+        }
+        IntArrayList pieces = new IntArrayList();
+        pieces.add(target);
+        attach(pieces);
+    }
+
+    // Re-runs Tarjan inside one component; the largest piece keeps the id
+    private void split(int component) {
+        IntArrayList list = members.get(component);
+        List<IntArrayList> pieces = localTarjan(list, component);
+        if (pieces.size() == 1) {
+            return;
+        }
+        metrics.incrementOperation("dynamic_splits");
+        detach(component);
+        int largest = 0;
+        for (int i = 1; i < pieces.size(); i++) {
+            if (pieces.get(i).size() > pieces.get(largest).size()) {
+                largest = i;
+            }
+        }
+        IntArrayList ids = new IntArrayList(pieces.size());
+        for (int i = 0; i < pieces.size(); i++) {
+            IntArrayList piece = pieces.get(i);
+            int id = component;
+            if (i == largest) {
+                members.set(component, piece);
+            } else {
+                id = newComponent();
+                members.set(id, piece);
+                for (int k = 0; k < piece.size(); k++) {
+                    componentOf[piece.get(k)] = id;
+                }
+                metrics.addOperations("dynamic_vertices_relabeled", piece.size());
+            }
+            ids.add(id);
+        }
+        attach(ids);
+    }
+
+    // Iterative Tarjan restricted to the vertices of one component
+    private List<IntArrayList> localTarjan(IntArrayList vertices, int component) {
+        for (int k = 0; k < vertices.size(); k++) {
+            int v = vertices.get(k);
+            indices[v] = -1;
+            edgeCursor[v] = 0;
+        }
+        List<IntArrayList> pieces = new ArrayList<>();
+        int index = 0;
+        long scanned = 0;
+        for (int k = 0; k < vertices.size(); k++) {
+            int root = vertices.get(k);
+            if (indices[root] != -1) {
+                continue;
+            }
+            indices[root] = lowlinks[root] = index++;
+            sccStack.push(root);
+            callStack.push(root);
+            while (!callStack.isEmpty()) {
+                int v = callStack.peek();
+                if (edgeCursor[v] < graph.outDegree(v)) {
+                    int w = graph.neighborAt(v, edgeCursor[v]++);
+                    scanned++;
+                    if (componentOf[w] != component) {
+                        continue;
+                    }
+                    if (indices[w] == -1) {
+                        indices[w] = lowlinks[w] = index++;
+                        sccStack.push(w);
+                        callStack.push(w);
+                    } else if (indices[w] >= 0) {
+                        lowlinks[v] = Math.min(lowlinks[v], indices[w]);
+                    }
+                    continue;
+                }
+                callStack.pop();
+                if (lowlinks[v] == indices[v]) {
+                    IntArrayList piece = new IntArrayList();
+                    int w;
+                    do {
+                        w = sccStack.pop();
+                        indices[w] = -2; // finished: no longer on the Tarjan stack
+                        piece.add(w);
+                    } while (w != v);
+                    pieces.add(piece);
+                }
+                if (!callStack.isEmpty()) {
+                    int parent = callStack.peek();
+                    lowlinks[parent] = Math.min(lowlinks[parent], lowlinks[v]);
+                }
+            }
+        }
+        metrics.addOperations("dynamic_edges_scanned", scanned);
+        return pieces;
+    }
+
+    // Drops every condensation edge touching the component
+    private void detach(int component) {
+        IntArrayList out = outComponents.get(component);
+        for (int i = 0; i < out.size(); i++) {
+            edgeCounts.remove(LongIntHashMap.pack(component, out.get(i)));
+            inComponents.get(out.get(i)).removeValue(component);
+        }
+        IntArrayList in = inComponents.get(component);
+        for (int i = 0; i < in.size(); i++) {
+            edgeCounts.remove(LongIntHashMap.pack(in.get(i), component));
+            outComponents.get(in.get(i)).removeValue(component);
+        }
+        out.clear();
+        in.clear();
+    }
+
+    // Recounts condensation edges for freshly formed components from their members' edges.
+    // Edges between two of the pieces are counted once, from the source side.
+    private void attach(IntArrayList pieces) {
+        int fresh = ++stamp;
+        for (int i = 0; i < pieces.size(); i++) {
+            forwardMark[pieces.get(i)] = fresh;
+        }
+        for (int i = 0; i < pieces.size(); i++) {
+            int c = pieces.get(i);
+            IntArrayList list = members.get(c);
+            for (int k = 0; k < list.size(); k++) {
+                int x = list.get(k);
+                for (int e = 0, degree = graph.outDegree(x); e < degree; e++) {
+                    int d = componentOf[graph.neighborAt(x, e)];
+                    if (d != c) {
+                        addComponentEdge(c, d, 1);
+                    }
+                }
+                for (int e = 0, degree = graph.inDegree(x); e < degree; e++) {
+                    int d = componentOf[graph.reverseNeighborAt(x, e)];
+                    if (d != c && forwardMark[d] != fresh) {
+                        addComponentEdge(d, c, 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addComponentEdge(int from, int to, int copies) {
+        if (edgeCounts.addTo(LongIntHashMap.pack(from, to), copies) == copies) {
+            outComponents.get(from).add(to);
+            inComponents.get(to).add(from);
+        }
+    }
+
+    private void removeComponentEdge(int from, int to, int copies) {
+        long key = LongIntHashMap.pack(from, to);
+        if (edgeCounts.addTo(key, -copies) == 0) {
+            edgeCounts.remove(key);
+            outComponents.get(from).removeValue(to);
+            inComponents.get(to).removeValue(from);
+        }
+    }
+
+    private int newComponent() {
+        componentCount++;
+        if (!freeIds.isEmpty()) {
+            int id = freeIds.pop();
+            members.set(id, new IntArrayList());
+            return id;
+        }
+        members.add(new IntArrayList());
+        outComponents.add(new IntArrayList());
+        inComponents.add(new IntArrayList());
+        return members.size() - 1;
+    }
+
+    private void releaseComponent(int id) {
+        componentCount--;
+        members.set(id, null);
+        freeIds.push(id);
+    }
+}
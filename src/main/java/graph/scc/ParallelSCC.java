@@ -0,0 +1,356 @@
+package graph.scc;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+import graph.util.ParallelRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Forward-backward SCC decomposition on a fork-join pool.
+ *
+ * Every task owns a disjoint vertex subset tagged with its own color. It
+ * first trims vertices without an in- or out-neighbor inside the subset,
+ * then picks a pivot and marks its forward and backward closures. Their
+ * intersection is the pivot's component; the three remainders cannot share
+ * a component and become independent subtasks. Once a subset is small
+ * enough that there are several per worker (and never below
+ * {@value #SEQUENTIAL_THRESHOLD} vertices), it finishes with a restricted
+ * Tarjan, since each further split costs a full pass over the subset.
+ */
+final class ParallelSCC {
+    static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+    private static final int PARALLEL_FRONTIER = 1 << 11;
+    private static final int DONE = 0;
+    private static final long NOT_STARTED = -1;
+
+    private final IntGraph graph;
+    private final ForkJoinPool pool;
+    private final int cutoff;
+    // Color of the task that owns each vertex; DONE once it has a component
+    private final int[] color;
+    private final int[] component;
+    // Per-vertex scratch, only ever touched by the task owning the vertex
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] inCount;
+    private final int[] outCount;
+    private final int[] indices;
+    private final int[] lowlinks;
+    // Cursor position where each vertex on a Tarjan DFS path left off in its row
+    private final long[] edgePosition;
+    private final AtomicInteger nextColor = new AtomicInteger(DONE + 1);
+    private final AtomicInteger nextComponent = new AtomicInteger();
+    final LongAdder trimmed = new LongAdder();
+    final LongAdder pivots = new LongAdder();
+    final LongAdder sequentialVertices = new LongAdder();
+
+    ParallelSCC(IntGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int n = graph.getVertexCount();
+        this.cutoff = Math.max(SEQUENTIAL_THRESHOLD, n / (pool.getParallelism() * 8));
+        this.color = new int[n];
+        this.component = new int[n];
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.inCount = new int[n];
+        this.outCount = new int[n];
+        this.indices = new int[n];
+        this.lowlinks = new int[n];
+        this.edgePosition = new long[n];
+    }
+
+    SCCResult run() {
+        int n = graph.getVertexCount();
+        if (n == 0) {
+            return SCCResult.fromComponentIds(component, 0);
+        }
+        int[] all = new int[n];
+        int rootColor = nextColor.getAndIncrement();
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+            color[v] = rootColor;
+        }
+        // Materialize the transpose once, before any worker asks for it
+        graph.inDegree(0);
+        IntArrayList remaining = trim(all, n, rootColor);
+        pool.invoke(new SubsetTask(remaining.buffer(), remaining.size(), rootColor));
+        return components();
+    }
+
+    // Components ordered by smallest member, members ascending, so output is deterministic
+    private SCCResult components() {
+        int n = component.length;
+        int[] rank = new int[nextComponent.get()];
+        Arrays.fill(rank, -1);
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int c = component[v];
+            if (rank[c] == -1) {
+                rank[c] = count++;
+            }
+            component[v] = rank[c];
+        }
+        return SCCResult.fromComponentIds(component, count);
+    }
+
+    private final class SubsetTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] vertices;
+        private final int size;
+        private final int tag;
+
+        SubsetTask(int[] vertices, int size, int tag) {
+            this.vertices = vertices;
+            this.size = size;
+            this.tag = tag;
+        }
+
+        @Override
+        protected void compute() {
+            if (size <= cutoff) {
+                tarjan(vertices, size, tag);
+                return;
+            }
+
+            pivots.increment();
+            int pivot = vertices[size / 2];
+            invokeAll(ForkJoinTask.adapt(() -> reach(pivot, tag, forwardMark, true)),
+                    ForkJoinTask.adapt(() -> reach(pivot, tag, backwardMark, false)));
+
+            int id = nextComponent.getAndIncrement();
+            IntArrayList forwardOnly = new IntArrayList();
+            IntArrayList backwardOnly = new IntArrayList();
+            IntArrayList rest = new IntArrayList();
+            for (int i = 0; i < size; i++) {
+                int v = vertices[i];
+                boolean forward = forwardMark[v] == tag;
+                boolean backward = backwardMark[v] == tag;
+                if (forward && backward) {
+                    component[v] = id;
+                    color[v] = DONE;
+                } else if (forward) {
+                    forwardOnly.add(v);
+                } else if (backward) {
+                    backwardOnly.add(v);
+                } else {
+                    rest.add(v);
+                }
+            }
+
+            List<SubsetTask> subtasks = new ArrayList<>(3);
+            for (IntArrayList subset : new IntArrayList[]{forwardOnly, backwardOnly, rest}) {
+                if (!subset.isEmpty()) {
+                    int subsetColor = nextColor.getAndIncrement();
+                    for (int i = 0; i < subset.size(); i++) {
+                        color[subset.get(i)] = subsetColor;
+                    }
+                    subtasks.add(new SubsetTask(subset.buffer(), subset.size(), subsetColor));
+                }
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    // Peels off vertices with no in- or out-neighbor of the same color; returns the survivors
+    private IntArrayList trim(int[] vertices, int size, int tag) {
+        IntArrayList queue = new IntArrayList();
+        NeighborCursor cursor = graph.neighborCursor();
+        for (int k = 0; k < size; k++) {
+            int v = vertices[k];
+            int out = 0;
+            cursor.reset(v);
+            while (cursor.next()) {
+                if (color[cursor.target()] == tag) {
+                    out++;
+                }
+            }
+            int in = 0;
+            for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+                if (color[graph.reverseNeighborAt(v, i)] == tag) {
+                    in++;
+                }
+            }
+            outCount[v] = out;
+            inCount[v] = in;
+            if (out == 0 || in == 0) {
+                queue.push(v);
+            }
+        }
+
+        long peeled = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.pop();
+            if (color[v] != tag) {
+                continue;
+            }
+            color[v] = DONE;
+            component[v] = nextComponent.getAndIncrement();
+            peeled++;
+            cursor.reset(v);
+            while (cursor.next()) {
+                int w = cursor.target();
+                if (color[w] == tag && --inCount[w] == 0) {
+                    queue.push(w);
+                }
+            }
+            for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+                int w = graph.reverseNeighborAt(v, i);
+                if (color[w] == tag && --outCount[w] == 0) {
+                    queue.push(w);
+                }
+            }
+        }
+        trimmed.add(peeled);
+
+        IntArrayList remaining = new IntArrayList(size - (int) peeled + 1);
+        for (int k = 0; k < size; k++) {
+            if (color[vertices[k]] == tag) {
+                remaining.add(vertices[k]);
+            }
+        }
+        return remaining;
+    }
+
+    // Level-synchronous closure of pivot inside its color, along out-edges or in-edges.
+    // Wide levels expand in parallel; two workers may both claim a vertex, which only
+    // duplicates it in the next frontier since marking is idempotent.
+    private void reach(int pivot, int tag, int[] mark, boolean forward) {
+        IntArrayList frontier = new IntArrayList();
+        IntArrayList next = new IntArrayList();
+        mark[pivot] = tag;
+        frontier.add(pivot);
+        while (!frontier.isEmpty()) {
+            next.clear();
+            int[] level = frontier.buffer();
+            if (frontier.size() < PARALLEL_FRONTIER) {
+                expand(level, 0, frontier.size(), tag, mark, forward, next);
+            } else {
+                IntArrayList shared = next;
+                ParallelRange.forEach(pool, 0, frontier.size(), PARALLEL_FRONTIER / 2, (lo, hi) -> {
+                    IntArrayList local = new IntArrayList();
+                    expand(level, lo, hi, tag, mark, forward, local);
+                    synchronized (shared) {
+                        for (int i = 0; i < local.size(); i++) {
+                            shared.add(local.get(i));
+                        }
+                    }
+                });
+            }
+            IntArrayList swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+    }
+
+    // Out-edges are read through a cursor of this call's own; in-edges are plain arrays
+    private void expand(int[] level, int from, int to, int tag, int[] mark, boolean forward, IntArrayList out) {
+        NeighborCursor cursor = forward ? graph.neighborCursor() : null;
+        for (int k = from; k < to; k++) {
+            int v = level[k];
+            if (forward) {
+                cursor.reset(v);
+                while (cursor.next()) {
+                    visit(cursor.target(), tag, mark, out);
+                }
+            } else {
+                for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+                    visit(graph.reverseNeighborAt(v, i), tag, mark, out);
+                }
+            }
+        }
+    }
+
+    private void visit(int w, int tag, int[] mark, IntArrayList out) {
+        if (color[w] == tag && mark[w] != tag) {
+            mark[w] = tag;
+            out.add(w);
+        }
+    }
+
+    // Iterative Tarjan that only follows edges between vertices of the given color
+    private void tarjan(int[] vertices, int size, int tag) {
+        sequentialVertices.add(size);
+        for (int k = 0; k < size; k++) {
+            int v = vertices[k];
+            indices[v] = -1;
+            component[v] = -1;
+        }
+        NeighborCursor cursor = graph.neighborCursor();
+        int[] callStack = new int[size];
+        int[] sccStack = new int[size];
+        int callTop = 0;
+        int sccTop = 0;
+        int index = 0;
+
+        for (int k = 0; k < size; k++) {
+            int root = vertices[k];
+            if (color[root] != tag || indices[root] != -1) {
+                continue;
+            }
+            indices[root] = lowlinks[root] = index++;
+            sccStack[sccTop++] = root;
+            edgePosition[root] = NOT_STARTED;
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                if (edgePosition[v] == NOT_STARTED) {
+                    cursor.reset(v);
+                } else {
+                    cursor.resume(v, edgePosition[v]);
+                }
+                int child = -1;
+                while (cursor.next()) {
+                    int w = cursor.target();
+                    if (color[w] != tag) {
+                        continue;
+                    }
+                    if (indices[w] == -1) {
+                        child = w;
+                        break;
+                    }
+                    if (component[w] == -1) {
+                        lowlinks[v] = Math.min(lowlinks[v], indices[w]);
+                    }
+                }
+                if (child != -1) {
+                    edgePosition[v] = cursor.position();
+                    indices[child] = lowlinks[child] = index++;
+                    sccStack[sccTop++] = child;
+                    edgePosition[child] = NOT_STARTED;
+                    callStack[callTop++] = child;
+                    continue;
+                }
+
+                callTop--;
+                if (lowlinks[v] == indices[v]) {
+                    int id = nextComponent.getAndIncrement();
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        component[w] = id;
+                    } while (w != v);
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    lowlinks[parent] = Math.min(lowlinks[parent], lowlinks[v]);
+                }
+            }
+        }
+
+        for (int k = 0; k < size; k++) {
+            color[vertices[k]] = DONE;
+        }
+    }
+}
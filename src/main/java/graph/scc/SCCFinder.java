@@ -1,152 +1,347 @@
 package graph.scc;
 
-import graph.model.Graph;
+import graph.model.CSRGraph;
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.Workspace;
 import metrics.Metrics;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class SCCFinder {
+    // Edge position of a vertex pushed on the DFS stack whose row has not been read yet
+    private static final long NOT_STARTED = -1;
+
+    // Trim preprocessing applied by Tarjan and Kosaraju; see Trimmer
+    public enum Trim {
+        NONE, SINGLETONS, SINGLETONS_AND_PAIRS
+    }
+
+    private static final Workspace.Slot TARJAN_INDICES = Workspace.slot("tarjan.indices");
+    private static final Workspace.Slot TARJAN_LOWLINKS = Workspace.slot("tarjan.lowlinks");
+    private static final Workspace.Slot TARJAN_ON_STACK = Workspace.slot("tarjan.onStack");
+    private static final Workspace.Slot TARJAN_EDGE_POSITION = Workspace.slot("tarjan.edgePosition");
+    private static final Workspace.Slot TARJAN_CURSOR = Workspace.slot("tarjan.cursor");
+    private static final Workspace.Slot TARJAN_CALL_STACK = Workspace.slot("tarjan.callStack");
+    private static final Workspace.Slot TARJAN_SCC_STACK = Workspace.slot("tarjan.sccStack");
+    private static final Workspace.Slot TARJAN_COMPONENT_OF = Workspace.slot("tarjan.componentOf");
+    private static final Workspace.Slot TARJAN_MEMBERS = Workspace.slot("tarjan.members");
+    private static final Workspace.Slot TARJAN_OFFSETS = Workspace.slot("tarjan.offsets");
+    private static final Workspace.Slot TARJAN_COLLECTOR = Workspace.slot("tarjan.collector");
+    private static final Workspace.Slot TARJAN_RESULT = Workspace.slot("tarjan.result");
+
     private Metrics metrics;
+    private Trim trim = Trim.NONE;
 
     public SCCFinder(Metrics metrics) {
         this.metrics = metrics;
     }
 
-    public List<List<Integer>> findSCCsTarjan(Graph graph) {
-        metrics.startTimer();
-        int n = graph.getVertexCount();
-        int[] indices = new int[n];
-        int[] lowlinks = new int[n];
-        boolean[] onStack = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
-        List<List<Integer>> sccs = new ArrayList<>();
-        int[] index = {0};
-
-        Arrays.fill(indices, -1);
-
-        for (int v = 0; v < n; v++) {
-            if (indices[v] == -1) {
-                strongConnect(graph, v, indices, lowlinks, onStack, stack, sccs, index);
-            }
+    // Trimmed components are listed first, then the residual graph's in the usual order
+    public void setTrim(Trim trim) {
+        this.trim = trim;
+    }
+
+    // Vertices already assigned by the trim phase, or null when trimming is off.
+    // Trimming needs in-edges; callers release a transpose they did not start with.
+    private boolean[] trimmed(IntGraph graph, SCCResult.Collector sccs, Trim trim) {
+        if (trim == Trim.NONE) {
+            return null;
         }
+        return Trimmer.trim(graph, trim == Trim.SINGLETONS_AND_PAIRS, sccs, metrics);
+    }
 
+    public SCCResult findSCCsTarjan(IntGraph graph) {
+        metrics.startTimer();
+        SCCResult sccs = tarjan(graph, trim);
         metrics.stopTimer();
         return sccs;
     }
 
-    private void strongConnect(Graph graph, int v, int[] indices, int[] lowlinks,
-                               boolean[] onStack, Stack<Integer> stack,
-                               List<List<Integer>> sccs, int[] index) {
-        metrics.incrementOperation("DFS_visits");
-        indices[v] = index[0];
-        lowlinks[v] = index[0];
-        index[0]++;
-        stack.push(v);
-        onStack[v] = true;
-
-        for (int w : graph.getNeighbors(v)) {
-            metrics.incrementOperation("DFS_edges");
-            if (indices[w] == -1) {
-                strongConnect(graph, w, indices, lowlinks, onStack, stack, sccs, index);
-                lowlinks[v] = Math.min(lowlinks[v], lowlinks[w]);
-            } else if (onStack[w]) {
-                lowlinks[v] = Math.min(lowlinks[v], indices[w]);
+    // Same components, computed in workspace buffers; the result is overwritten by the next
+    // call on this workspace. With trimming off, repeated calls allocate nothing.
+    public SCCResult findSCCsTarjan(IntGraph graph, Workspace workspace) {
+        metrics.startTimer();
+        int n = graph.getVertexCount();
+        SCCResult.Collector sccs = workspace.reuse(TARJAN_COLLECTOR, SCCResult.Collector::new)
+                .reset(workspace.ints(TARJAN_COMPONENT_OF, n), workspace.ints(TARJAN_MEMBERS, n),
+                        workspace.ints(TARJAN_OFFSETS, n + 1), n);
+        tarjan(graph, trim, workspace, sccs);
+        SCCResult result = workspace.reuse(TARJAN_RESULT, SCCFinder::emptyResult);
+        sccs.buildInto(result);
+        metrics.stopTimer();
+        return result;
+    }
+
+    private static SCCResult emptyResult() {
+        return new SCCResult(new int[0], new int[1], new int[0]);
+    }
+
+    // Condensation numbered so that every edge goes from a lower to a higher component id.
+    // Tarjan completes components sinks first, so reversing its numbering is already a
+    // topological order and no separate sort is needed. Trimming is skipped here because
+    // it would break that order.
+    public TopologicalCondensation condenseTopologically(IntGraph graph, WeightAggregate aggregate) {
+        metrics.startTimer();
+        SCCResult sccs = tarjan(graph, Trim.NONE).reversed();
+        CSRGraph condensation = CondensationBuilder.build(graph, sccs, aggregate);
+        metrics.stopTimer();
+        return new TopologicalCondensation(sccs, condensation);
+    }
+
+    private SCCResult tarjan(IntGraph graph, Trim trim) {
+        SCCResult.Collector sccs = new SCCResult.Collector(graph.getVertexCount());
+        tarjan(graph, trim, new Workspace(), sccs);
+        return sccs.build();
+    }
+
+    private void tarjan(IntGraph graph, Trim trim, Workspace workspace, SCCResult.Collector sccs) {
+        boolean hadReverse = graph.hasReverseAdjacency();
+        int n = graph.getVertexCount();
+        int[] indices = workspace.filledInts(TARJAN_INDICES, n, -1);
+        int[] lowlinks = workspace.ints(TARJAN_LOWLINKS, n);
+        byte[] onStack = workspace.clearedBytes(TARJAN_ON_STACK, n);
+        // Where each vertex on the DFS path left off in its row; a cursor resumes from it, so
+        // encoded graphs decode every row once instead of re-seeking per edge
+        long[] edgePosition = workspace.longs(TARJAN_EDGE_POSITION, n);
+        NeighborCursor cursor = workspace.neighborCursor(TARJAN_CURSOR, graph);
+        // Both stacks hold each vertex at most once, so n slots never overflow
+        int[] callStack = workspace.ints(TARJAN_CALL_STACK, n);
+        int[] sccStack = workspace.ints(TARJAN_SCC_STACK, n);
+        int callTop = 0;
+        int sccTop = 0;
+        int index = 0;
+        long visits = 0;
+        long edges = 0;
+
+        boolean[] removed = trimmed(graph, sccs, trim);
+        if (removed != null) {
+            // Trimmed vertices count as visited and off the stack, so edges into them are ignored
+            for (int v = 0; v < n; v++) {
+                if (removed[v]) {
+                    indices[v] = Integer.MAX_VALUE;
+                }
             }
         }
 
-        if (lowlinks[v] == indices[v]) {
-            List<Integer> scc = new ArrayList<>();
-            int w;
-            do {
-                w = stack.pop();
-                onStack[w] = false;
-                scc.add(w);
-            } while (w != v);
-            sccs.add(scc);
+        for (int root = 0; root < n; root++) {
+            if (indices[root] != -1) {
+                continue;
+            }
+            visits++;
+            indices[root] = lowlinks[root] = index++;
+            sccStack[sccTop++] = root;
+            onStack[root] = 1;
+            edgePosition[root] = NOT_STARTED;
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                resume(cursor, v, edgePosition[v]);
+                int child = -1;
+                while (cursor.next()) {
+                    int w = cursor.target();
+                    edges++;
+                    if (indices[w] == -1) {
+                        child = w;
+                        break;
+                    }
+                    if (onStack[w] != 0) {
+                        lowlinks[v] = Math.min(lowlinks[v], indices[w]);
+                    }
+                }
+                if (child != -1) {
+                    // Descend into the child; v resumes after this edge once it finishes
+                    edgePosition[v] = cursor.position();
+                    visits++;
+                    indices[child] = lowlinks[child] = index++;
+                    sccStack[sccTop++] = child;
+                    onStack[child] = 1;
+                    edgePosition[child] = NOT_STARTED;
+                    callStack[callTop++] = child;
+                    continue;
+                }
+
+                callTop--;
+                if (lowlinks[v] == indices[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = 0;
+                        sccs.add(w);
+                    } while (w != v);
+                    sccs.close();
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    lowlinks[parent] = Math.min(lowlinks[parent], lowlinks[v]);
+                }
+            }
+        }
+
+        if (!hadReverse) {
+            graph.releaseReverseAdjacency();
         }
+
+        metrics.addOperations("DFS_visits", visits);
+        metrics.addOperations("DFS_edges", edges);
     }
 
-    public List<List<Integer>> findSCCsKosaraju(Graph graph) {
+    public SCCResult findSCCsKosaraju(IntGraph graph) {
         metrics.startTimer();
+        boolean hadReverse = graph.hasReverseAdjacency();
+        int n = graph.getVertexCount();
+        long[] edgePosition = new long[n];
+        NeighborCursor cursor = graph.neighborCursor();
+        int[] callStack = new int[n];
+        long[] counts = new long[2];
+        SCCResult.Collector sccs = new SCCResult.Collector(n);
+        boolean[] removed = trimmed(graph, sccs, trim);
 
         // Step 1: First DFS for finishing times
-        Stack<Integer> stack = new Stack<>();
-        boolean[] visited = new boolean[graph.getVertexCount()];
+        int[] finished = new int[n];
+        int finishedCount = 0;
+        boolean[] visited = removed == null ? new boolean[n] : removed.clone();
 
-        for (int i = 0; i < graph.getVertexCount(); i++) {
-            if (!visited[i]) {
-                dfsFirstPass(graph, i, visited, stack);
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            counts[0]++;
+            visited[root] = true;
+            int callTop = 0;
+            edgePosition[root] = NOT_STARTED;
+            callStack[callTop++] = root;
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                resume(cursor, v, edgePosition[v]);
+                int child = -1;
+                while (cursor.next()) {
+                    int neighbor = cursor.target();
+                    counts[1]++;
+                    if (!visited[neighbor]) {
+                        child = neighbor;
+                        break;
+                    }
+                }
+                if (child != -1) {
+                    edgePosition[v] = cursor.position();
+                    counts[0]++;
+                    visited[child] = true;
+                    edgePosition[child] = NOT_STARTED;
+                    callStack[callTop++] = child;
+                } else {
+                    callTop--;
+                    finished[finishedCount++] = v;
+                }
             }
         }
 
-        // Step 2: Second DFS on transpose graph
-        Arrays.fill(visited, false);
-        List<List<Integer>> sccs = new ArrayList<>();
+        // Step 2: Second DFS on transpose graph, latest finisher first
+        if (removed == null) {
+            Arrays.fill(visited, false);
+        } else {
+            System.arraycopy(removed, 0, visited, 0, n);
+        }
+        // The transpose is plain arrays, so the backward pass keeps positional cursors
+        int[] edgeCursor = new int[n];
 
-        while (!stack.isEmpty()) {
-            int v = stack.pop();
+        for (int k = finishedCount - 1; k >= 0; k--) {
+            int v = finished[k];
             if (!visited[v]) {
-                List<Integer> scc = new ArrayList<>();
-                dfsSecondPass(graph, v, visited, scc);
-                sccs.add(scc);
+                collectReverse(graph, v, visited, edgeCursor, callStack, sccs, counts);
+                sccs.close();
             }
         }
 
+        // Free a transpose that only this call needed
+        if (!hadReverse) {
+            graph.releaseReverseAdjacency();
+        }
+
+        metrics.addOperations("DFS_visits", counts[0]);
+        metrics.addOperations("DFS_edges", counts[1]);
         metrics.stopTimer();
-        return sccs;
+        return sccs.build();
     }
 
-    private void dfsFirstPass(Graph graph, int v, boolean[] visited, Stack<Integer> stack) {
-        metrics.incrementOperation("DFS_visits");
-        visited[v] = true;
+    private static void resume(NeighborCursor cursor, int vertex, long position) {
+        if (position == NOT_STARTED) {
+            cursor.reset(vertex);
+        } else {
+            cursor.resume(vertex, position);
+        }
+    }
 
-        for (int neighbor : graph.getNeighbors(v)) {
-            metrics.incrementOperation("DFS_edges");
-            if (!visited[neighbor]) {
-                dfsFirstPass(graph, neighbor, visited, stack);
+    // Iterative DFS over in-edges from root, adding vertices to scc in preorder
+    private void collectReverse(IntGraph graph, int root, boolean[] visited, int[] edgeCursor,
+                                int[] callStack, SCCResult.Collector scc, long[] counts) {
+        counts[0]++;
+        visited[root] = true;
+        scc.add(root);
+        int callTop = 0;
+        callStack[callTop++] = root;
+        while (callTop > 0) {
+            int v = callStack[callTop - 1];
+            if (edgeCursor[v] < graph.inDegree(v)) {
+                int neighbor = graph.reverseNeighborAt(v, edgeCursor[v]++);
+                counts[1]++;
+                if (!visited[neighbor]) {
+                    counts[0]++;
+                    visited[neighbor] = true;
+                    scc.add(neighbor);
+                    callStack[callTop++] = neighbor;
+                }
+            } else {
+                callTop--;
             }
         }
+    }
 
-        stack.push(v);
+    // Same components as findSCCsTarjan, ordered by smallest member with members ascending
+    public SCCResult findSCCsParallel(IntGraph graph, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return findSCCsParallel(graph, pool);
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    private void dfsSecondPass(Graph graph, int v, boolean[] visited, List<Integer> scc) {
-        metrics.incrementOperation("DFS_visits");
-        visited[v] = true;
-        scc.add(v);
+    public SCCResult findSCCsParallel(IntGraph graph, ForkJoinPool pool) {
+        metrics.startTimer();
+        boolean hadReverse = graph.hasReverseAdjacency();
+        ParallelSCC decomposition = new ParallelSCC(graph, pool);
+        SCCResult sccs = decomposition.run();
 
-        for (int neighbor : graph.getReverseNeighbors(v)) {
-            metrics.incrementOperation("DFS_edges");
-            if (!visited[neighbor]) {
-                dfsSecondPass(graph, neighbor, visited, scc);
-            }
+        if (!hadReverse) {
+            graph.releaseReverseAdjacency();
         }
+
+        metrics.addOperations("parallel_trimmed", decomposition.trimmed.sum());
+        metrics.addOperations("parallel_pivots", decomposition.pivots.sum());
+        metrics.addOperations("parallel_tarjan_vertices", decomposition.sequentialVertices.sum());
+        metrics.stopTimer();
+        return sccs;
     }
 
-    public Graph buildCondensationGraph(Graph originalGraph, List<List<Integer>> sccs) {
-        int n = sccs.size();
-        Graph condensation = new Graph(n);
+    // Condensation edges carry weight 1; see the WeightAggregate overloads for real weights
+    public CSRGraph buildCondensationGraph(IntGraph originalGraph, List<List<Integer>> sccs) {
+        return buildCondensationGraph(originalGraph, sccs, WeightAggregate.UNIT);
+    }
 
-        // Map each original vertex to its SCC index
-        int[] vertexToSCC = new int[originalGraph.getVertexCount()];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToSCC[vertex] = i;
-            }
-        }
+    public CSRGraph buildCondensationGraph(IntGraph originalGraph, List<List<Integer>> sccs,
+                                           WeightAggregate aggregate) {
+        return CondensationBuilder.build(originalGraph, sccs, aggregate);
+    }
 
-        // Add edges between different SCCs
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < originalGraph.getVertexCount(); u++) {
-            for (int v : originalGraph.getNeighbors(u)) {
-                int sccU = vertexToSCC[u];
-                int sccV = vertexToSCC[v];
-                if (sccU != sccV && !addedEdges.contains(sccU + "-" + sccV)) {
-                    condensation.addEdge(sccU, sccV, 1);
-                    addedEdges.add(sccU + "-" + sccV);
-                }
-            }
+    public CSRGraph buildCondensationGraph(IntGraph originalGraph, List<List<Integer>> sccs,
+                                           WeightAggregate aggregate, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return CondensationBuilder.build(originalGraph, sccs, aggregate, pool);
+        } finally {
+            pool.shutdown();
         }
-
-        return condensation;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,218 @@
+package graph.scc;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strongly connected components stored as flat int arrays: a vertex to
+ * component map plus CSR-style member lists, where the members of component
+ * c occupy [offsets[c], offsets[c + 1]) of the member array.
+ *
+ * It is also a {@code List<List<Integer>>} so existing callers keep working;
+ * {@link #get(int)} returns a read-only view over the member slice and
+ * nothing is boxed until an element is actually read.
+ */
+public final class SCCResult extends AbstractList<List<Integer>> {
+    // Not final: a result held by a Workspace is refilled in place on every run
+    private int[] componentOf;
+    private int[] offsets;
+    private int[] members;
+    private int vertexCount;
+    private int componentCount;
+
+    SCCResult(int[] componentOf, int[] offsets, int[] members) {
+        reset(componentOf, offsets, members, componentOf.length, offsets.length - 1);
+    }
+
+    // Arrays may be longer than needed; only the first vertexCount / componentCount + 1 entries are read
+    void reset(int[] componentOf, int[] offsets, int[] members, int vertexCount, int componentCount) {
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.members = members;
+        this.vertexCount = vertexCount;
+        this.componentCount = componentCount;
+    }
+
+    // Groups vertices by component id; members are listed in ascending vertex order
+    public static SCCResult fromComponentIds(int[] componentOf, int componentCount) {
+        int n = componentOf.length;
+        int[] offsets = new int[componentCount + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursor = Arrays.copyOf(offsets, componentCount);
+        int[] members = new int[n];
+        for (int v = 0; v < n; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+        return new SCCResult(componentOf, offsets, members);
+    }
+
+    // Packs component lists produced elsewhere, keeping their order
+    public static SCCResult of(List<List<Integer>> sccs, int vertexCount) {
+        if (sccs instanceof SCCResult) {
+            return (SCCResult) sccs;
+        }
+        Collector collector = new Collector(vertexCount);
+        for (List<Integer> scc : sccs) {
+            for (int v : scc) {
+                collector.add(v);
+            }
+            collector.close();
+        }
+        return collector.build();
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int componentOf(int vertex) {
+        return componentOf[vertex];
+    }
+
+    // Backing vertex -> component array; shared, so callers must not modify it.
+    // Results from a Workspace may have extra entries past vertexCount().
+    public int[] componentIds() {
+        return componentOf;
+    }
+
+    public int componentSize(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    public int member(int component, int index) {
+        return members[offsets[component] + index];
+    }
+
+    // Id of a largest component, or -1 when there are none
+    public int largestComponent() {
+        int largest = -1;
+        for (int c = 0; c < componentCount(); c++) {
+            if (largest < 0 || componentSize(c) > componentSize(largest)) {
+                largest = c;
+            }
+        }
+        return largest;
+    }
+
+    // histogram[s] is the number of components with exactly s vertices
+    public int[] sizeHistogram() {
+        int largest = largestComponent();
+        int[] histogram = new int[largest < 0 ? 1 : componentSize(largest) + 1];
+        for (int c = 0; c < componentCount(); c++) {
+            histogram[componentSize(c)]++;
+        }
+        return histogram;
+    }
+
+    // Same components numbered last to first, each keeping its member order
+    SCCResult reversed() {
+        int k = componentCount();
+        int[] ids = new int[vertexCount];
+        for (int v = 0; v < ids.length; v++) {
+            ids[v] = k - 1 - componentOf[v];
+        }
+        int[] reversedOffsets = new int[k + 1];
+        int[] reversedMembers = new int[vertexCount];
+        int position = 0;
+        for (int c = 0; c < k; c++) {
+            int old = k - 1 - c;
+            int size = componentSize(old);
+            reversedOffsets[c] = position;
+            System.arraycopy(members, offsets[old], reversedMembers, position, size);
+            position += size;
+        }
+        reversedOffsets[k] = position;
+        return new SCCResult(ids, reversedOffsets, reversedMembers);
+    }
+
+    @Override
+    public List<Integer> get(int component) {
+        if (component < 0 || component >= componentCount()) {
+            throw new IndexOutOfBoundsException("Component " + component + " out of bounds for " +
+                    componentCount() + " components");
+        }
+        int from = offsets[component];
+        int to = offsets[component + 1];
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + (to - from));
+                }
+                return members[from + index];
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return componentCount();
+    }
+
+    // Appends components one vertex at a time in the order the algorithms discover them
+    static final class Collector {
+        private int[] componentOf;
+        private int[] members;
+        private int[] offsets;
+        private int vertexCount;
+        private int filled;
+        private int count;
+
+        Collector() {
+        }
+
+        Collector(int vertexCount) {
+            reset(new int[vertexCount], new int[vertexCount], new int[16], vertexCount);
+        }
+
+        // Starts over on caller-owned buffers; offsets with vertexCount + 1 entries never grows
+        Collector reset(int[] componentOf, int[] members, int[] offsets, int vertexCount) {
+            this.componentOf = componentOf;
+            this.members = members;
+            this.offsets = offsets;
+            this.vertexCount = vertexCount;
+            this.filled = 0;
+            this.count = 0;
+            offsets[0] = 0;
+            return this;
+        }
+
+        void add(int vertex) {
+            componentOf[vertex] = count;
+            members[filled++] = vertex;
+        }
+
+        // Ends the component started by the preceding add calls
+        void close() {
+            count++;
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length << 1);
+            }
+            offsets[count] = filled;
+        }
+
+        SCCResult build() {
+            return new SCCResult(componentOf, Arrays.copyOf(offsets, count + 1), members);
+        }
+
+        // Points an existing result at the collected buffers without copying
+        void buildInto(SCCResult result) {
+            result.reset(componentOf, offsets, members, vertexCount, count);
+        }
+    }
+}
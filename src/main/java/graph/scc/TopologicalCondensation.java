@@ -0,0 +1,30 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+
+/**
+ * Components together with their condensation DAG, numbered in topological
+ * order: every condensation edge u -> v has u < v, so iterating component
+ * ids 0..k-1 is a valid topological order.
+ */
+public class TopologicalCondensation {
+    private final SCCResult components;
+    private final CSRGraph condensation;
+
+    TopologicalCondensation(SCCResult components, CSRGraph condensation) {
+        this.components = components;
+        this.condensation = condensation;
+    }
+
+    public SCCResult getComponents() {
+        return components;
+    }
+
+    public CSRGraph getCondensation() {
+        return condensation;
+    }
+
+    public int getComponentCount() {
+        return components.componentCount();
+    }
+}
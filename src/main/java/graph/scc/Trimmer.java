@@ -0,0 +1,134 @@
+package graph.scc;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+import metrics.Metrics;
+
+/**
+ * Peels off vertices whose component is obvious before a full SCC search.
+ *
+ * Trim-1 repeatedly removes vertices with no remaining in-edges or no
+ * remaining out-edges; each is a singleton component. Trim-2 removes pairs
+ * u, v whose only remaining in-edges (or only out-edges) come from each
+ * other, which makes {u, v} a closed 2-cycle. Removals lower neighbor
+ * counts and expose more trim-1 vertices, so the order is trim-1, one
+ * trim-2 sweep, trim-1 again. Each phase is linear in the edges it touches.
+ */
+final class Trimmer {
+
+    private Trimmer() {
+    }
+
+    // Appends trimmed components to sccs and returns the removed vertices
+    static boolean[] trim(IntGraph graph, boolean pairs, SCCResult.Collector sccs, Metrics metrics) {
+        int n = graph.getVertexCount();
+        boolean[] removed = new boolean[n];
+        NeighborCursor cursor = graph.neighborCursor();
+        int[] inCount = new int[n];
+        int[] outCount = new int[n];
+        IntArrayList queue = new IntArrayList();
+        for (int v = 0; v < n; v++) {
+            inCount[v] = graph.inDegree(v);
+            outCount[v] = graph.outDegree(v);
+            if (inCount[v] == 0 || outCount[v] == 0) {
+                queue.push(v);
+            }
+        }
+
+        long singletons = drain(graph, cursor, queue, removed, inCount, outCount, sccs);
+        long paired = 0;
+        if (pairs) {
+            for (int v = 0; v < n; v++) {
+                if (removed[v]) {
+                    continue;
+                }
+                int partner = -1;
+                if (inCount[v] == 1) {
+                    int u = onlyInNeighbor(graph, v, removed);
+                    if (u != v && inCount[u] == 1 && onlyInNeighbor(graph, u, removed) == v) {
+                        partner = u;
+                    }
+                }
+                if (partner < 0 && outCount[v] == 1) {
+                    int u = onlyOutNeighbor(cursor, v, removed);
+                    if (u != v && outCount[u] == 1 && onlyOutNeighbor(cursor, u, removed) == v) {
+                        partner = u;
+                    }
+                }
+                if (partner >= 0) {
+                    remove(graph, cursor, v, removed, inCount, outCount, queue);
+                    remove(graph, cursor, partner, removed, inCount, outCount, queue);
+                    sccs.add(v);
+                    sccs.add(partner);
+                    sccs.close();
+                    paired += 2;
+                }
+            }
+            // Pairs leave sources and sinks behind
+            singletons += drain(graph, cursor, queue, removed, inCount, outCount, sccs);
+        }
+
+        metrics.addOperations("trim1_vertices", singletons);
+        if (pairs) {
+            metrics.addOperations("trim2_vertices", paired);
+        }
+        return removed;
+    }
+
+    // Trim-1 to a fixpoint; returns how many singletons it removed
+    private static long drain(IntGraph graph, NeighborCursor cursor, IntArrayList queue, boolean[] removed,
+                              int[] inCount, int[] outCount, SCCResult.Collector sccs) {
+        long singletons = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.pop();
+            if (!removed[v]) {
+                remove(graph, cursor, v, removed, inCount, outCount, queue);
+                sccs.add(v);
+                sccs.close();
+                singletons++;
+            }
+        }
+        return singletons;
+    }
+
+    // Out-edges go through the cursor, which decodes an encoded row in one pass
+    private static void remove(IntGraph graph, NeighborCursor cursor, int v, boolean[] removed, int[] inCount,
+                               int[] outCount, IntArrayList queue) {
+        removed[v] = true;
+        cursor.reset(v);
+        while (cursor.next()) {
+            int w = cursor.target();
+            if (!removed[w] && --inCount[w] == 0) {
+                queue.push(w);
+            }
+        }
+        for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+            int w = graph.reverseNeighborAt(v, i);
+            if (!removed[w] && --outCount[w] == 0) {
+                queue.push(w);
+            }
+        }
+    }
+
+    private static int onlyInNeighbor(IntGraph graph, int v, boolean[] removed) {
+        for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+            int w = graph.reverseNeighborAt(v, i);
+            if (!removed[w]) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    private static int onlyOutNeighbor(NeighborCursor cursor, int v, boolean[] removed) {
+        cursor.reset(v);
+        while (cursor.next()) {
+            int w = cursor.target();
+            if (!removed[w]) {
+                return w;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,33 @@
+package graph.scc;
+
+/**
+ * How the weights of original edges between two components are combined
+ * into the weight of their condensation edge.
+ */
+public enum WeightAggregate {
+    /** Every condensation edge has weight 1, so path lengths count hops. */
+    UNIT,
+    /** Cheapest original edge; the right choice for shortest paths. */
+    MIN,
+    /** Most expensive original edge; the right choice for critical paths. */
+    MAX,
+    /** Total weight of all original edges between the two components. */
+    SUM;
+
+    int combine(int current, int weight) {
+        switch (this) {
+            case MIN:
+                return Math.min(current, weight);
+            case MAX:
+                return Math.max(current, weight);
+            case SUM:
+                return current + weight;
+            default:
+                return 1;
+        }
+    }
+
+    int initial(int weight) {
+        return this == UNIT ? 1 : weight;
+    }
+}
@@ -0,0 +1,210 @@
+package graph.topo;
+
+import graph.model.Graph;
+import graph.model.IntGraph;
+import graph.model.ReverseAdjacency;
+import graph.util.IntArrayList;
+import metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Topological order of a DAG that gains edges one at a time
+ * (Pearce-Kelly).
+ *
+ * Each vertex has a position in the order. An edge u -> v with
+ * position(u) < position(v) changes nothing. Otherwise only the window
+ * [position(v), position(u)] can be wrong: a forward search from v and a
+ * backward search from u, both bounded by that window, find the affected
+ * vertices, and those are reassigned to the same set of positions with
+ * everything reaching u placed before everything reachable from v. If the
+ * forward search reaches u, the edge would close a cycle and is rejected.
+ */
+public class DynamicTopologicalOrder {
+    private final Graph graph;
+    private final Metrics metrics;
+    private final int[] position;
+    private final int[] vertexAt;
+
+    // Scratch: stamped visit marks and the two affected sets
+    private final int[] mark;
+    private int stamp;
+    private final IntArrayList forward = new IntArrayList();
+    private final IntArrayList backward = new IntArrayList();
+    private final IntArrayList stack = new IntArrayList();
+
+    public DynamicTopologicalOrder(int vertexCount, Metrics metrics) {
+        this(new Graph(vertexCount), metrics);
+    }
+
+    // Throws IllegalArgumentException if the initial graph has a cycle
+    public DynamicTopologicalOrder(IntGraph initial, Metrics metrics) {
+        int n = initial.getVertexCount();
+        this.metrics = metrics;
+        this.graph = new Graph(n, ReverseAdjacency.EAGER);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0, degree = initial.outDegree(u); i < degree; i++) {
+                graph.addEdge(u, initial.neighborAt(u, i), initial.weightAt(u, i));
+            }
+        }
+        this.position = new int[n];
+        this.vertexAt = new int[n];
+        this.mark = new int[n];
+
+        List<Integer> order = new TopologicalSort(metrics).topologicalOrderKahn(graph);
+        for (int i = 0; i < n; i++) {
+            vertexAt[i] = order.get(i);
+            position[vertexAt[i]] = i;
+        }
+    }
+
+    // Adds the edge and repairs the order; returns false and leaves the graph unchanged if it would close a cycle
+    public boolean insertEdge(int from, int to, int weight) {
+        metrics.incrementOperation("dynamic_topo_inserts");
+        int lower = position[to];
+        int upper = position[from];
+        if (lower > upper) {
+            graph.addEdge(from, to, weight);
+            return true;
+        }
+        if (from == to || !collectForward(to, from, upper)) {
+            metrics.incrementOperation("dynamic_topo_cycles");
+            return false;
+        }
+        collectBackward(from, lower);
+        reorder();
+        graph.addEdge(from, to, weight);
+        return true;
+    }
+
+    // Deleting an edge never invalidates the order; returns false if the edge did not exist
+    public boolean deleteEdge(int from, int to) {
+        return graph.removeEdge(from, to);
+    }
+
+    // True if the edge from -> to could be inserted without closing a cycle
+    public boolean canInsert(int from, int to) {
+        if (from == to) {
+            return false;
+        }
+        return position[to] > position[from] || collectForward(to, from, position[from]);
+    }
+
+    public int position(int vertex) {
+        return position[vertex];
+    }
+
+    public int vertexAt(int position) {
+        return vertexAt[position];
+    }
+
+    public boolean precedes(int u, int v) {
+        return position[u] < position[v];
+    }
+
+    public int getVertexCount() {
+        return vertexAt.length;
+    }
+
+    public IntGraph getGraph() {
+        return graph;
+    }
+
+    // Current order as a read-only view; it follows later insertions
+    public List<Integer> order() {
+        return new IntListView(vertexAt);
+    }
+
+    // Vertices reachable from start with position below the bound; false as soon as target is reached
+    private boolean collectForward(int start, int target, int bound) {
+        int visit = ++stamp;
+        forward.clear();
+        stack.clear();
+        mark[start] = visit;
+        stack.push(start);
+        long edges = 0;
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            forward.add(v);
+            for (int i = 0, degree = graph.outDegree(v); i < degree; i++) {
+                int w = graph.neighborAt(v, i);
+                edges++;
+                if (w == target) {
+                    metrics.addOperations("dynamic_topo_edges", edges);
+                    return false;
+                }
+                if (mark[w] != visit && position[w] < bound) {
+                    mark[w] = visit;
+                    stack.push(w);
+                }
+            }
+        }
+        metrics.addOperations("dynamic_topo_edges", edges);
+        return true;
+    }
+
+    // Vertices that reach start with position above the bound
+    private void collectBackward(int start, int bound) {
+        int visit = ++stamp;
+        backward.clear();
+        mark[start] = visit;
+        stack.push(start);
+        long edges = 0;
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            backward.add(v);
+            for (int i = 0, degree = graph.inDegree(v); i < degree; i++) {
+                int w = graph.reverseNeighborAt(v, i);
+                edges++;
+                if (mark[w] != visit && position[w] > bound) {
+                    mark[w] = visit;
+                    stack.push(w);
+                }
+            }
+        }
+        metrics.addOperations("dynamic_topo_edges", edges);
+    }
+
+    // Hands the affected positions back out: backward set first, then forward set, each keeping its relative order
+    private void reorder() {
+        int[] backwardSorted = sortedByPosition(backward);
+        int[] forwardSorted = sortedByPosition(forward);
+        int[] slots = new int[backwardSorted.length + forwardSorted.length];
+        for (int i = 0; i < backwardSorted.length; i++) {
+            slots[i] = position[backwardSorted[i]];
+        }
+        for (int i = 0; i < forwardSorted.length; i++) {
+            slots[backwardSorted.length + i] = position[forwardSorted[i]];
+        }
+        Arrays.sort(slots);
+
+        int next = 0;
+        for (int v : backwardSorted) {
+            place(v, slots[next++]);
+        }
+        for (int v : forwardSorted) {
+            place(v, slots[next++]);
+        }
+        metrics.addOperations("dynamic_topo_reordered", slots.length);
+    }
+
+    private void place(int vertex, int slot) {
+        position[vertex] = slot;
+        vertexAt[slot] = vertex;
+    }
+
+    private int[] sortedByPosition(IntArrayList vertices) {
+        long[] keyed = new long[vertices.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            int v = vertices.get(i);
+            keyed[i] = ((long) position[v] << 32) | v;
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,25 @@
+package graph.topo;
+
+import java.util.AbstractList;
+
+// Read-only List<Integer> over an int array; values are boxed only when read
+final class IntListView extends AbstractList<Integer> {
+    private final int[] values;
+
+    IntListView(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public Integer get(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + values.length);
+        }
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,120 @@
+package graph.topo;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.IntArrayList;
+import graph.util.ParallelRange;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous Kahn's algorithm on a fork-join pool.
+ *
+ * The current frontier is split into chunks; each chunk decrements the
+ * in-degrees of its out-neighbors atomically, and whichever decrement
+ * reaches zero owns that vertex, so no vertex is emitted twice. A chunk
+ * buffers its new vertices locally and then reserves a slice of the order
+ * array with one atomic add. The next frontier is exactly that slice, which
+ * is sorted to keep the output independent of scheduling; wide frontiers
+ * are sorted in parallel on the same pool.
+ */
+final class ParallelKahn {
+    // Below this many vertices a frontier is sorted in place rather than handed to the pool
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    private final IntGraph graph;
+    private final ForkJoinPool pool;
+    private final int[] order;
+    private final AtomicIntegerArray inDegree;
+    private final AtomicInteger tail = new AtomicInteger();
+    final LongAdder edges = new LongAdder();
+    final LongAdder pushes = new LongAdder();
+    final LongAdder pops = new LongAdder();
+
+    ParallelKahn(IntGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int n = graph.getVertexCount();
+        this.order = new int[n];
+        this.inDegree = new AtomicIntegerArray(n);
+    }
+
+    TopologicalLevels run() {
+        int n = graph.getVertexCount();
+        ParallelRange.forEach(pool, 0, n, ParallelRange.grainFor(pool, n), (from, to) -> {
+            NeighborCursor cursor = graph.neighborCursor();
+            long scanned = 0;
+            for (int v = from; v < to; v++) {
+                cursor.reset(v);
+                while (cursor.next()) {
+                    inDegree.incrementAndGet(cursor.target());
+                    scanned++;
+                }
+            }
+            edges.add(scanned);
+        });
+        ParallelRange.forEach(pool, 0, n, ParallelRange.grainFor(pool, n), (from, to) -> {
+            IntArrayList sources = new IntArrayList();
+            for (int v = from; v < to; v++) {
+                if (inDegree.get(v) == 0) {
+                    sources.add(v);
+                }
+            }
+            publish(sources);
+        });
+
+        IntArrayList offsets = new IntArrayList();
+        int start = 0;
+        while (start < tail.get()) {
+            int end = tail.get();
+            sort(start, end);
+            offsets.add(start);
+            ParallelRange.forEach(pool, start, end, ParallelRange.grainFor(pool, end - start), (from, to) -> {
+                NeighborCursor cursor = graph.neighborCursor();
+                IntArrayList ready = new IntArrayList();
+                for (int k = from; k < to; k++) {
+                    cursor.reset(order[k]);
+                    while (cursor.next()) {
+                        int w = cursor.target();
+                        if (inDegree.decrementAndGet(w) == 0) {
+                            ready.add(w);
+                        }
+                    }
+                }
+                pops.add(to - from);
+                publish(ready);
+            });
+            start = end;
+        }
+
+        if (start != n) {
+            throw new IllegalArgumentException("Graph has cycles - no topological order exists");
+        }
+        offsets.add(n);
+        return new TopologicalLevels(order, Arrays.copyOf(offsets.buffer(), offsets.size()));
+    }
+
+    // Arrays.parallelSort forks into the pool of the worker that calls it, so it runs on ours
+    private void sort(int start, int end) {
+        if (end - start < PARALLEL_SORT_THRESHOLD) {
+            Arrays.sort(order, start, end);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(order, start, end)));
+        }
+    }
+
+    // Appends a chunk's vertices to the order behind everything published so far
+    private void publish(IntArrayList vertices) {
+        if (vertices.isEmpty()) {
+            return;
+        }
+        pushes.add(vertices.size());
+        int at = tail.getAndAdd(vertices.size());
+        System.arraycopy(vertices.buffer(), 0, order, at, vertices.size());
+    }
+}
@@ -0,0 +1,53 @@
+package graph.topo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a topological sort that does not throw on cyclic input:
+ * either a full order, or one directed cycle as a vertex sequence
+ * c0 -> c1 -> ... -> ck -> c0 that proves no order exists.
+ */
+public final class TopoSortResult {
+    private final int[] order;
+    private final int[] cycle;
+
+    private TopoSortResult(int[] order, int[] cycle) {
+        this.order = order;
+        this.cycle = cycle;
+    }
+
+    static TopoSortResult acyclic(int[] order) {
+        return new TopoSortResult(order, null);
+    }
+
+    static TopoSortResult cyclic(int[] cycle) {
+        return new TopoSortResult(null, cycle);
+    }
+
+    public boolean isAcyclic() {
+        return cycle == null;
+    }
+
+    // Topological order, or an empty list when the graph has a cycle
+    public List<Integer> getOrder() {
+        return order == null ? Collections.emptyList() : new IntListView(order);
+    }
+
+    // Vertices of a cycle in edge order, or an empty list when the graph is acyclic
+    public List<Integer> getCycle() {
+        return cycle == null ? Collections.emptyList() : new IntListView(cycle);
+    }
+
+    // "a -> b -> c -> a", for error messages
+    public String describeCycle() {
+        if (cycle == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int v : cycle) {
+            text.append(v).append(" -> ");
+        }
+        return text.append(cycle[0]).toString();
+    }
+}
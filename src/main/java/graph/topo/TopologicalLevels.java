@@ -0,0 +1,71 @@
+package graph.topo;
+
+import java.util.List;
+
+/**
+ * A topological order split into antichain levels. Level 0 holds the
+ * sources; a vertex sits in level l when its longest incoming path has l
+ * edges, so all vertices of one level can be processed concurrently once
+ * the earlier levels are done. The vertices of level l occupy
+ * [levelStart(l), levelEnd(l)) of the order, in ascending id.
+ */
+public final class TopologicalLevels {
+    private final int[] order;
+    private final int[] levelOffsets;
+
+    TopologicalLevels(int[] order, int[] levelOffsets) {
+        this.order = order;
+        this.levelOffsets = levelOffsets;
+    }
+
+    // Backing order array; shared, so callers must not modify it
+    public int[] order() {
+        return order;
+    }
+
+    // levelOffsets()[l] is where level l starts; the last entry is the vertex count
+    public int[] levelOffsets() {
+        return levelOffsets;
+    }
+
+    public int levelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    public int levelStart(int level) {
+        return levelOffsets[level];
+    }
+
+    public int levelEnd(int level) {
+        return levelOffsets[level + 1];
+    }
+
+    public int levelSize(int level) {
+        return levelOffsets[level + 1] - levelOffsets[level];
+    }
+
+    // Size of the largest level: the most vertices that are ever ready at once
+    public int width() {
+        int width = 0;
+        for (int l = 0; l < levelCount(); l++) {
+            width = Math.max(width, levelSize(l));
+        }
+        return width;
+    }
+
+    // Level of every vertex, indexed by vertex id
+    public int[] levelOfVertices() {
+        int[] levelOf = new int[order.length];
+        for (int l = 0; l < levelCount(); l++) {
+            for (int i = levelOffsets[l]; i < levelOffsets[l + 1]; i++) {
+                levelOf[order[i]] = l;
+            }
+        }
+        return levelOf;
+    }
+
+    // Flat order as a read-only list, for callers of the List-based APIs
+    public List<Integer> asList() {
+        return new IntListView(order);
+    }
+}
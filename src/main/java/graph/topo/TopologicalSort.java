@@ -1,97 +1,251 @@
 package graph.topo;
 
-import graph.model.Graph;
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+import graph.util.Workspace;
 import metrics.Metrics;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class TopologicalSort {
+    private static final byte WHITE = 0;
+    private static final byte GRAY = 1;
+    private static final byte BLACK = 2;
+    private static final long NOT_STARTED = -1;
+    private static final Workspace.Slot KAHN_ORDER = Workspace.slot("kahn.order");
+    private static final Workspace.Slot KAHN_IN_DEGREE = Workspace.slot("kahn.inDegree");
+
     private Metrics metrics;
 
     public TopologicalSort(Metrics metrics) {
         this.metrics = metrics;
     }
 
-    public List<Integer> topologicalOrderKahn(Graph graph) {
+    public List<Integer> topologicalOrderKahn(IntGraph graph) {
+        metrics.startTimer();
+        int n = graph.getVertexCount();
+        int[] order = new int[n];
+        kahn(graph, graph.neighborCursor(), new int[n], order);
+        metrics.stopTimer();
+        return new IntListView(order);
+    }
+
+    // Same order, computed in workspace buffers: the first n entries of the returned array,
+    // overwritten by the next call on this workspace. Repeated calls allocate nothing.
+    public int[] topologicalOrderKahn(IntGraph graph, Workspace workspace) {
         metrics.startTimer();
         int n = graph.getVertexCount();
-        int[] inDegree = new int[n];
-        List<Integer> order = new ArrayList<>();
+        int[] order = workspace.ints(KAHN_ORDER, n);
+        kahn(graph, workspace.neighborCursor(graph), workspace.filledInts(KAHN_IN_DEGREE, n, 0), order);
+        metrics.stopTimer();
+        return order;
+    }
+
+    // The order array doubles as the queue: vertices are appended once ready and read in turn
+    private void kahn(IntGraph graph, NeighborCursor cursor, int[] inDegree, int[] order) {
+        int n = graph.getVertexCount();
+        long edges = 0;
 
         // Calculate in-degrees
         for (int v = 0; v < n; v++) {
-            for (int neighbor : graph.getNeighbors(v)) {
-                inDegree[neighbor]++;
-                metrics.incrementOperation("inDegree_calc");
+            cursor.reset(v);
+            while (cursor.next()) {
+                inDegree[cursor.target()]++;
+                edges++;
             }
         }
 
         // Initialize queue with vertices having 0 in-degree
-        Queue<Integer> queue = new LinkedList<>();
+        int tail = 0;
         for (int v = 0; v < n; v++) {
             if (inDegree[v] == 0) {
-                queue.offer(v);
-                metrics.incrementOperation("queue_pushes");
+                order[tail++] = v;
             }
         }
 
         // Process vertices
-        while (!queue.isEmpty()) {
-            int v = queue.poll();
-            metrics.incrementOperation("queue_pops");
-            order.add(v);
-
-            for (int neighbor : graph.getNeighbors(v)) {
-                inDegree[neighbor]--;
-                if (inDegree[neighbor] == 0) {
-                    queue.offer(neighbor);
-                    metrics.incrementOperation("queue_pushes");
+        int head = 0;
+        while (head < tail) {
+            int v = order[head++];
+            cursor.reset(v);
+            while (cursor.next()) {
+                int neighbor = cursor.target();
+                if (--inDegree[neighbor] == 0) {
+                    order[tail++] = neighbor;
                 }
             }
         }
 
+        metrics.addOperations("inDegree_calc", edges);
+        metrics.addOperations("queue_pushes", tail);
+        metrics.addOperations("queue_pops", head);
+
         // Check for cycles
-        if (order.size() != n) {
-            throw new IllegalArgumentException("Graph has cycles - no topological order exists");
+        if (tail != n) {
+            // Only paid on failure: one DFS pass names a concrete cycle
+            throw new IllegalArgumentException("Graph has cycles - no topological order exists: " +
+                    threeColorDFS(graph).describeCycle());
         }
-
-        metrics.stopTimer();
-        return order;
     }
 
+    // Kahn's algorithm one frontier at a time; each level is an antichain of ready vertices
+    public TopologicalLevels topologicalLevelsParallel(IntGraph graph, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return topologicalLevelsParallel(graph, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-    public List<Integer> topologicalOrderDFS(Graph graph) {
+    public TopologicalLevels topologicalLevelsParallel(IntGraph graph, ForkJoinPool pool) {
         metrics.startTimer();
-        int n = graph.getVertexCount();
-        boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
+        ParallelKahn kahn = new ParallelKahn(graph, pool);
+        TopologicalLevels levels = kahn.run();
+        metrics.addOperations("inDegree_calc", kahn.edges.sum());
+        metrics.addOperations("queue_pushes", kahn.pushes.sum());
+        metrics.addOperations("queue_pops", kahn.pops.sum());
+        metrics.addOperations("kahn_levels", levels.levelCount());
+        metrics.stopTimer();
+        return levels;
+    }
 
-        for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                dfsTopo(graph, i, visited, stack);
+    // Id-order variant for DAGs numbered topologically (every edge u -> v has u < v), such as a
+    // TopologicalCondensation: one forward sweep sets level[v] = max(level[u] + 1), no Kahn pass
+    public TopologicalLevels topologicalLevels(IntGraph dag) {
+        metrics.startTimer();
+        int n = dag.getVertexCount();
+        int[] levelOf = new int[n];
+        int levelCount = n == 0 ? 0 : 1;
+        long edges = 0;
+        NeighborCursor cursor = dag.neighborCursor();
+        for (int v = 0; v < n; v++) {
+            cursor.reset(v);
+            while (cursor.next()) {
+                int w = cursor.target();
+                edges++;
+                if (w <= v) {
+                    throw new IllegalArgumentException("Graph is not numbered in topological order: edge " +
+                            v + "->" + w);
+                }
+                if (levelOf[w] <= levelOf[v]) {
+                    levelOf[w] = levelOf[v] + 1;
+                    levelCount = Math.max(levelCount, levelOf[w] + 1);
+                }
             }
         }
 
-        List<Integer> order = new ArrayList<>();
-        while (!stack.isEmpty()) {
-            order.add(stack.pop());
+        // Counting sort by level; ascending ids within a level come from the id-order fill
+        int[] levelOffsets = new int[levelCount + 1];
+        for (int v = 0; v < n; v++) {
+            levelOffsets[levelOf[v] + 1]++;
         }
-
+        for (int l = 0; l < levelCount; l++) {
+            levelOffsets[l + 1] += levelOffsets[l];
+        }
+        int[] fill = Arrays.copyOf(levelOffsets, levelCount);
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[fill[levelOf[v]]++] = v;
+        }
+        metrics.addOperations("edge_checks", edges);
+        metrics.addOperations("levels", levelCount);
         metrics.stopTimer();
-        return order;
+        return new TopologicalLevels(order, levelOffsets);
     }
 
-    private void dfsTopo(Graph graph, int v, boolean[] visited, Stack<Integer> stack) {
-        metrics.incrementOperation("DFS_visits");
-        visited[v] = true;
+    // Iterative DFS; throws IllegalArgumentException naming a cycle if there is one
+    public List<Integer> topologicalOrderDFS(IntGraph graph) {
+        TopoSortResult result = topologicalSortDFS(graph);
+        if (!result.isAcyclic()) {
+            throw new IllegalArgumentException("Graph has cycles - no topological order exists: " +
+                    result.describeCycle());
+        }
+        return result.getOrder();
+    }
+
+    // Reverse DFS postorder, or the cycle closed by the first back edge found
+    public TopoSortResult topologicalSortDFS(IntGraph graph) {
+        metrics.startTimer();
+        TopoSortResult result = threeColorDFS(graph);
+        metrics.stopTimer();
+        return result;
+    }
 
-        for (int neighbor : graph.getNeighbors(v)) {
-            metrics.incrementOperation("DFS_edges");
-            if (!visited[neighbor]) {
-                dfsTopo(graph, neighbor, visited, stack);
+    // White vertices are unvisited, gray ones are on the DFS path, black ones are finished
+    private TopoSortResult threeColorDFS(IntGraph graph) {
+        int n = graph.getVertexCount();
+        byte[] color = new byte[n];
+        int[] callStack = new int[n];
+        // Where each gray vertex left off in its row; a cursor resumes from it, so encoded
+        // graphs decode every row once instead of re-seeking per edge
+        long[] edgePosition = new long[n];
+        NeighborCursor cursor = graph.neighborCursor();
+        int[] order = new int[n];
+        int next = n;
+        long visits = 0;
+        long edges = 0;
+        int[] cycle = null;
+
+        for (int root = 0; root < n && cycle == null; root++) {
+            if (color[root] != WHITE) {
+                continue;
+            }
+            color[root] = GRAY;
+            edgePosition[root] = NOT_STARTED;
+            callStack[0] = root;
+            int top = 1;
+            visits++;
+
+            while (top > 0) {
+                int v = callStack[top - 1];
+                if (edgePosition[v] == NOT_STARTED) {
+                    cursor.reset(v);
+                } else {
+                    cursor.resume(v, edgePosition[v]);
+                }
+                int child = -1;
+                while (cursor.next()) {
+                    int w = cursor.target();
+                    edges++;
+                    if (color[w] == WHITE) {
+                        child = w;
+                        break;
+                    }
+                    if (color[w] == GRAY) {
+                        cycle = cycleOnStack(callStack, top, w);
+                        break;
+                    }
+                }
+                if (cycle != null) {
+                    break;
+                }
+                if (child != -1) {
+                    edgePosition[v] = cursor.position();
+                    color[child] = GRAY;
+                    edgePosition[child] = NOT_STARTED;
+                    callStack[top++] = child;
+                    visits++;
+                    continue;
+                }
+                top--;
+                color[v] = BLACK;
+                order[--next] = v;
             }
         }
 
-        stack.push(v);
-        metrics.incrementOperation("stack_pushes");
+        metrics.addOperations("DFS_visits", visits);
+        metrics.addOperations("DFS_edges", edges);
+        metrics.addOperations("stack_pushes", n - next);
+        return cycle == null ? TopoSortResult.acyclic(order) : TopoSortResult.cyclic(cycle);
+    }
+
+    // The back edge top -> start closes the path from start to the top of the stack
+    private static int[] cycleOnStack(int[] callStack, int top, int start) {
+        int from = top - 1;
+        while (callStack[from] != start) {
+            from--;
+        }
+        return Arrays.copyOfRange(callStack, from, top);
     }
-}
\ No newline at end of file
+}
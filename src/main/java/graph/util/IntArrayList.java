@@ -0,0 +1,91 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints. Doubles as a stack (push/pop/peek) so the
+ * algorithms can avoid boxed collections on their hot paths.
+ */
+public class IntArrayList {
+    private int[] data;
+    private int size;
+
+    public IntArrayList() {
+        this(16);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        this.data = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, data.length << 1);
+        }
+        data[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        data[index] = value;
+    }
+
+    public void push(int value) {
+        add(value);
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return data[--size];
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return data[size - 1];
+    }
+
+    // Removes one occurrence by moving the last element into its slot; order is not kept
+    public boolean removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) {
+                data[i] = data[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Backing array (length >= size); valid until the next add
+    public int[] buffer() {
+        return data;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
@@ -0,0 +1,57 @@
+package graph.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join helper that splits [from, to) into chunks of at most grain
+ * elements and runs the body on each chunk.
+ */
+public final class ParallelRange {
+
+    public interface Body {
+        void apply(int from, int to);
+    }
+
+    private ParallelRange() {
+    }
+
+    public static void forEach(ForkJoinPool pool, int from, int to, int grain, Body body) {
+        if (to - from <= grain) {
+            body.apply(from, to);
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, Math.max(1, grain), body));
+    }
+
+    // Grain that yields a few chunks per worker, so uneven chunks still balance
+    public static int grainFor(ForkJoinPool pool, int size) {
+        return Math.max(1024, size / (pool.getParallelism() * 8));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Body body;
+
+        RangeTask(int from, int to, int grain, Body body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.apply(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
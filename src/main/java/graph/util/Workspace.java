@@ -0,0 +1,147 @@
+package graph.util;
+
+import graph.model.IntGraph;
+import graph.model.NeighborCursor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Scratch and result buffers that algorithms borrow instead of allocating
+ * on every call. Each algorithm names its buffers with {@link Slot}s; a
+ * buffer grows to the largest size ever requested and is reused as is
+ * afterwards, so once a workspace has seen the largest graph, repeated runs
+ * allocate nothing.
+ *
+ * Results returned by the workspace overloads live in these buffers: they
+ * stay valid until the same method runs again on the same workspace, and
+ * arrays may be longer than the graph, with only the first
+ * vertex-count entries meaningful. A workspace is not thread-safe.
+ */
+public final class Workspace {
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+    private static final Slot SHARED_CURSOR = slot("workspace.cursor");
+
+    // Names one buffer; create slots once, as static constants
+    public static final class Slot {
+        private final int index;
+        private final String name;
+
+        private Slot(int index, String name) {
+            this.index = index;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private int[][] ints = new int[0][];
+    private long[][] longs = new long[0][];
+    private byte[][] bytes = new byte[0][];
+    private Object[] objects = new Object[0];
+    private IntGraph[] cursorGraphs = new IntGraph[0];
+    private NeighborCursor[] cursors = new NeighborCursor[0];
+
+    public static Slot slot(String name) {
+        return new Slot(nextSlot.getAndIncrement(), name);
+    }
+
+    // At least size entries; contents are whatever the previous user left
+    public int[] ints(Slot slot, int size) {
+        if (slot.index >= ints.length) {
+            ints = Arrays.copyOf(ints, slot.index + 1);
+        }
+        int[] buffer = ints[slot.index];
+        if (buffer == null || buffer.length < size) {
+            buffer = new int[size];
+            ints[slot.index] = buffer;
+        }
+        return buffer;
+    }
+
+    // At least size entries, the first size of them set to value
+    public int[] filledInts(Slot slot, int size, int value) {
+        int[] buffer = ints(slot, size);
+        Arrays.fill(buffer, 0, size, value);
+        return buffer;
+    }
+
+    // At least size entries; contents are whatever the previous user left
+    public long[] longs(Slot slot, int size) {
+        if (slot.index >= longs.length) {
+            longs = Arrays.copyOf(longs, slot.index + 1);
+        }
+        long[] buffer = longs[slot.index];
+        if (buffer == null || buffer.length < size) {
+            buffer = new long[size];
+            longs[slot.index] = buffer;
+        }
+        return buffer;
+    }
+
+    // At least size entries, the first size of them zero
+    public byte[] clearedBytes(Slot slot, int size) {
+        if (slot.index >= bytes.length) {
+            bytes = Arrays.copyOf(bytes, slot.index + 1);
+        }
+        byte[] buffer = bytes[slot.index];
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[size];
+            bytes[slot.index] = buffer;
+        } else {
+            Arrays.fill(buffer, 0, size, (byte) 0);
+        }
+        return buffer;
+    }
+
+    // One long-lived object per slot, such as a result holder; created on first use
+    @SuppressWarnings("unchecked")
+    public <T> T reuse(Slot slot, Supplier<T> factory) {
+        if (slot.index >= objects.length) {
+            objects = Arrays.copyOf(objects, slot.index + 1);
+        }
+        Object value = objects[slot.index];
+        if (value == null) {
+            value = factory.get();
+            objects[slot.index] = value;
+        }
+        return (T) value;
+    }
+
+    // Cursor for the graph, kept while the same graph keeps being passed in
+    public NeighborCursor neighborCursor(IntGraph graph) {
+        return neighborCursor(SHARED_CURSOR, graph);
+    }
+
+    // Same, under the algorithm's own slot, so runs alternating between graphs keep their cursors
+    public NeighborCursor neighborCursor(Slot slot, IntGraph graph) {
+        if (slot.index >= cursors.length) {
+            cursors = Arrays.copyOf(cursors, slot.index + 1);
+            cursorGraphs = Arrays.copyOf(cursorGraphs, slot.index + 1);
+        }
+        if (cursorGraphs[slot.index] != graph) {
+            cursors[slot.index] = graph.neighborCursor();
+            cursorGraphs[slot.index] = graph;
+        }
+        return cursors[slot.index];
+    }
+
+    // Bytes currently held in int, long and byte buffers, for sizing reports
+    public long retainedBytes() {
+        long total = 0;
+        for (int[] buffer : ints) {
+            total += buffer == null ? 0 : 4L * buffer.length;
+        }
+        for (long[] buffer : longs) {
+            total += buffer == null ? 0 : 8L * buffer.length;
+        }
+        for (byte[] buffer : bytes) {
+            total += buffer == null ? 0 : buffer.length;
+        }
+        return total;
+    }
+}
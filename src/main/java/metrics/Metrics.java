@@ -2,6 +2,12 @@ package metrics;
 
 public interface Metrics {
     void incrementOperation(String operation);
+    // Implementations can record the count in one step; the default keeps older implementers compiling
+    default void addOperations(String operation, long count) {
+        for (long i = 0; i < count; i++) {
+            incrementOperation(operation);
+        }
+    }
     void startTimer();
     void stopTimer();
     long getOperationCount(String operation);
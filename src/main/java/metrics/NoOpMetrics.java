@@ -0,0 +1,35 @@
+package metrics;
+
+// Discards everything; for benchmarks and allocation tests, where counting every
+// edge through a HashMap would swamp the effects being measured
+public final class NoOpMetrics implements Metrics {
+    @Override
+    public void incrementOperation(String operation) {
+    }
+
+    @Override
+    public void addOperations(String operation, long count) {
+    }
+
+    @Override
+    public void startTimer() {
+    }
+
+    @Override
+    public void stopTimer() {
+    }
+
+    @Override
+    public long getOperationCount(String operation) {
+        return 0;
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+    }
+}
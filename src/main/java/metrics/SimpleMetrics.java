@@ -13,6 +13,11 @@ public class SimpleMetrics implements Metrics {
         operationCounts.put(operation, operationCounts.getOrDefault(operation, 0L) + 1);
     }
 
+    @Override
+    public void addOperations(String operation, long count) {
+        operationCounts.put(operation, operationCounts.getOrDefault(operation, 0L) + count);
+    }
+
     @Override
     public void startTimer() {
         startTime = System.nanoTime();
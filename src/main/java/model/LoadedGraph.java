@@ -0,0 +1,31 @@
+package model;
+
+import graph.model.IntGraph;
+
+/**
+ * A graph ready for analysis together with the dataset fields that travel with it.
+ */
+public class LoadedGraph {
+    private final IntGraph graph;
+    private final int source;
+    private final boolean directed;
+    private final String weightModel;
+
+    public LoadedGraph(IntGraph graph, int source, boolean directed, String weightModel) {
+        this.graph = graph;
+        this.source = source;
+        this.directed = directed;
+        this.weightModel = weightModel;
+    }
+
+    public IntGraph getGraph() { return graph; }
+    public int getSource() { return source; }
+    public boolean isDirected() { return directed; }
+    public String getWeightModel() { return weightModel; }
+
+    @Override
+    public String toString() {
+        return "LoadedGraph{n=" + graph.getVertexCount() + ", edges=" + graph.getEdgeCount() +
+                ", source=" + source + ", weightModel=" + weightModel + "}";
+    }
+}
@@ -0,0 +1,158 @@
+package utils;
+
+import graph.model.IntGraph;
+import graph.model.MappedGraph;
+import model.LoadedGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary graph format that can be memory-mapped instead of parsed.
+ *
+ * Layout (little-endian ints):
+ *   header   magic, version, n, m, source, flags (bit 0 = directed), weight model byte length
+ *   model    UTF-8 weight model name, padded to a multiple of 4 bytes
+ *   offsets  n + 1 ints
+ *   targets  m ints
+ *   weights  m ints
+ */
+public class BinaryGraphLoader {
+    static final int MAGIC = 0x42474144; // "DAGB" when read as little-endian bytes
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 7 * Integer.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    public static LoadedGraph load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileBytes = channel.size();
+            if (fileBytes < HEADER_BYTES) {
+                throw new IOException(filePath + " is truncated: " + fileBytes + " bytes, header needs " +
+                        HEADER_BYTES);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(filePath + " is not a binary graph file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + filePath);
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            int source = header.getInt();
+            int flags = header.getInt();
+            int modelLength = header.getInt();
+            if (n < 0 || m < 0 || modelLength < 0) {
+                throw new IOException("Corrupt header in " + filePath + ": n=" + n + ", m=" + m +
+                        ", weight model length=" + modelLength);
+            }
+
+            // Sizes come from the file, so check them against it before allocating or mapping
+            long position = HEADER_BYTES + padded(modelLength);
+            long offsetBytes = (n + 1L) * Integer.BYTES;
+            long edgeBytes = (long) m * Integer.BYTES;
+            if (fileBytes < position + offsetBytes + 2 * edgeBytes) {
+                throw new IOException(filePath + " is truncated: header promises " +
+                        (position + offsetBytes + 2 * edgeBytes) + " bytes, file has " + fileBytes);
+            }
+
+            byte[] modelBytes = new byte[modelLength];
+            map(channel, HEADER_BYTES, modelLength).get(modelBytes);
+            String weightModel = new String(modelBytes, StandardCharsets.UTF_8);
+
+            // Each section gets its own mapping; the mappings outlive the channel
+            IntBuffer offsets = map(channel, position, offsetBytes).asIntBuffer();
+            if (offsets.get(0) != 0 || offsets.get(n) != m) {
+                throw new IOException("Corrupt offsets in " + filePath + ": expected 0.." + m + ", found " +
+                        offsets.get(0) + ".." + offsets.get(n));
+            }
+            position += offsetBytes;
+            IntBuffer targets = map(channel, position, edgeBytes).asIntBuffer();
+            position += edgeBytes;
+            IntBuffer weights = map(channel, position, edgeBytes).asIntBuffer();
+
+            MappedGraph graph = new MappedGraph(n, offsets, targets, weights);
+            return new LoadedGraph(graph, source, (flags & 1) != 0, weightModel);
+        }
+    }
+
+    public static void write(IntGraph graph, int source, boolean directed, String weightModel,
+                             String filePath) throws IOException {
+        byte[] modelBytes = (weightModel == null ? "" : weightModel).getBytes(StandardCharsets.UTF_8);
+        int n = graph.getVertexCount();
+        Path path = Paths.get(filePath);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(graph.getEdgeCount())
+                    .putInt(source).putInt(directed ? 1 : 0).putInt(modelBytes.length);
+            buffer.put(modelBytes);
+            for (long pad = padded(modelBytes.length) - modelBytes.length; pad > 0; pad--) {
+                buffer.put((byte) 0);
+            }
+
+            int offset = 0;
+            for (int v = 0; v < n; v++) {
+                putInt(channel, buffer, offset);
+                offset += graph.outDegree(v);
+            }
+            putInt(channel, buffer, offset);
+
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.outDegree(u); i < degree; i++) {
+                    putInt(channel, buffer, graph.neighborAt(u, i));
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.outDegree(u); i < degree; i++) {
+                    putInt(channel, buffer, graph.weightAt(u, i));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    // Converts an existing JSON dataset into the binary format
+    public static void convertFromJson(String jsonPath, String binaryPath) throws IOException {
+        LoadedGraph loaded = JsonGraphLoader.loadGraph(jsonPath);
+        write(loaded.getGraph(), loaded.getSource(), loaded.isDirected(), loaded.getWeightModel(), binaryPath);
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Section of " + size + " bytes exceeds the 2 GB mapping limit");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // In long arithmetic, so a corrupt length near Integer.MAX_VALUE cannot wrap
+    private static long padded(int length) {
+        return (length + 3L) & ~3L;
+    }
+}
@@ -1,5 +1,6 @@
 package utils;
 
+import graph.model.CSRGraph;
 import graph.model.Graph;
 import model.GraphData;
 import java.util.Random;
@@ -116,6 +117,31 @@ public class GraphGenerator {
         return data;
     }
 
+    // Large street-grid style graph built directly in CSR form (no GraphData objects).
+    // Vertex ids are row-major, so the ids already have good locality; edges run east/south,
+    // plus short local shortcuts and, if allowCycles, occasional west/north back edges.
+    public CSRGraph generateCityGrid(int width, int height, double shortcutProbability, boolean allowCycles) {
+        CSRGraph.Builder builder = new CSRGraph.Builder(width * height);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int v = row * width + col;
+                if (col + 1 < width) builder.addEdge(v, v + 1, random.nextInt(10) + 1);
+                if (row + 1 < height) builder.addEdge(v, v + width, random.nextInt(10) + 1);
+                if (random.nextDouble() < shortcutProbability) {
+                    int targetRow = Math.min(height - 1, row + random.nextInt(3));
+                    int targetCol = Math.min(width - 1, col + 1 + random.nextInt(3));
+                    int target = targetRow * width + targetCol;
+                    if (target != v) builder.addEdge(v, target, random.nextInt(20) + 1);
+                }
+                if (allowCycles && random.nextDouble() < shortcutProbability) {
+                    if (col > 0) builder.addEdge(v, v - 1, random.nextInt(10) + 1);
+                    if (row > 0) builder.addEdge(v, v - width, random.nextInt(10) + 1);
+                }
+            }
+        }
+        return builder.build();
+    }
+
     private GraphData.Edge createEdge(int u, int v, int w) {
         GraphData.Edge edge = new GraphData.Edge();
         edge.setU(u);
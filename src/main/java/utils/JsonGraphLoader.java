@@ -1,7 +1,11 @@
 package utils;
 
 import model.GraphData;
+import model.LoadedGraph;
+import graph.model.CSRGraph;
 import graph.model.Graph;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import java.io.File;
@@ -9,6 +13,8 @@ import java.io.IOException;
 
 public class JsonGraphLoader {
     static final ObjectMapper mapper = new ObjectMapper();
+    // Below this many edges the fork-join overhead outweighs the parallel build
+    static final int PARALLEL_BUILD_THRESHOLD = 1 << 20;
 
     static {
         // Configure mapper to ignore unknown properties
@@ -19,6 +25,98 @@ public class JsonGraphLoader {
         return mapper.readValue(new File(filePath), GraphData.class);
     }
 
+    // Streams the file token by token straight into a CSR builder, never materializing GraphData.Edge objects
+    public static LoadedGraph loadGraph(String filePath) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(new File(filePath))) {
+            return readGraph(parser);
+        }
+    }
+
+    static LoadedGraph readGraph(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at " + parser.getCurrentLocation());
+        }
+
+        CSRGraph.Builder builder = new CSRGraph.Builder();
+        int n = -1;
+        int source = 0;
+        boolean directed = false;
+        String weightModel = null;
+
+        // Fields may come in any order; edges are buffered in the builder until n is known
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "n":
+                    n = parser.getIntValue();
+                    break;
+                case "source":
+                    source = parser.getIntValue();
+                    break;
+                case "directed":
+                    directed = parser.getBooleanValue();
+                    break;
+                case "weight_model":
+                    weightModel = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "edges":
+                    readEdges(parser, builder);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (n < 0) {
+            throw new IOException("Graph is missing the vertex count field \"n\"");
+        }
+        builder.setVertexCount(n);
+        return new LoadedGraph(build(builder), source, directed, weightModel);
+    }
+
+    private static void readEdges(JsonParser parser, CSRGraph.Builder builder) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array for \"edges\" at " + parser.getCurrentLocation());
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an edge object at " + parser.getCurrentLocation() +
+                        ", found " + token);
+            }
+            int u = 0, v = 0, w = 0;
+            boolean hasU = false, hasV = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "u":
+                        u = parser.getIntValue();
+                        hasU = true;
+                        break;
+                    case "v":
+                        v = parser.getIntValue();
+                        hasV = true;
+                        break;
+                    case "w":
+                        w = parser.getIntValue();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (!hasU || !hasV) {
+                throw new IOException("Edge is missing \"" + (hasU ? "v" : "u") + "\" at " +
+                        parser.getCurrentLocation());
+            }
+            builder.addEdge(u, v, w);
+        }
+    }
+
     public static Graph convertToGraph(GraphData graphData) {
         Graph graph = new Graph(graphData.getN());
 
@@ -28,4 +126,21 @@ public class JsonGraphLoader {
 
         return graph;
     }
-}
\ No newline at end of file
+
+    public static CSRGraph convertToCSRGraph(GraphData graphData) {
+        CSRGraph.Builder builder = new CSRGraph.Builder(graphData.getN());
+
+        for (GraphData.Edge edge : graphData.getEdges()) {
+            builder.addEdge(edge.getU(), edge.getV(), edge.getW());
+        }
+
+        return build(builder);
+    }
+
+    private static CSRGraph build(CSRGraph.Builder builder) {
+        if (builder.getEdgeCount() >= PARALLEL_BUILD_THRESHOLD) {
+            return builder.buildParallel(Runtime.getRuntime().availableProcessors());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,102 @@
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.scc.DynamicSCC;
+import graph.scc.SCCFinder;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class DynamicSCCTest {
+
+    @Test
+    public void testInsertClosingCycleMergesComponents() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+
+        DynamicSCC dynamic = new DynamicSCC(graph, new SimpleMetrics());
+        assertEquals(5, dynamic.componentCount());
+
+        assertFalse(dynamic.insertEdge(0, 2, 1));
+        assertTrue(dynamic.insertEdge(3, 1, 1));
+        assertEquals(3, dynamic.componentCount());
+        assertTrue(dynamic.sameComponent(1, 3));
+        assertTrue(dynamic.sameComponent(2, 3));
+        assertFalse(dynamic.sameComponent(0, 1));
+        // 0 -> {1,2,3} (two original edges collapse into one) -> 4
+        assertEquals(2, dynamic.condensationEdgeCount());
+        assertTrue(dynamic.hasCondensationEdge(dynamic.componentOf(0), dynamic.componentOf(1)));
+        assertTrue(dynamic.hasCondensationEdge(dynamic.componentOf(3), dynamic.componentOf(4)));
+    }
+
+    @Test
+    public void testDeleteInsideComponentSplitsIt() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 2, 1);
+
+        DynamicSCC dynamic = new DynamicSCC(graph, new SimpleMetrics());
+        assertEquals(1, dynamic.componentCount());
+
+        assertTrue(dynamic.deleteEdge(2, 0));
+        assertEquals(3, dynamic.componentCount());
+        assertTrue(dynamic.sameComponent(2, 3));
+        assertEquals(2, dynamic.condensationEdgeCount());
+        assertFalse(dynamic.deleteEdge(2, 0));
+
+        CSRGraph condensation = dynamic.buildCondensation();
+        assertEquals(3, condensation.getVertexCount());
+        assertEquals(2, condensation.getEdgeCount());
+    }
+
+    @Test
+    public void testRandomUpdatesMatchRecomputation() {
+        Random random = new Random(5);
+        int n = 60;
+        Graph reference = new Graph(n);
+        DynamicSCC dynamic = new DynamicSCC(n, new SimpleMetrics());
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<int[]> edges = new ArrayList<>();
+
+        for (int step = 0; step < 600; step++) {
+            if (edges.isEmpty() || random.nextInt(3) > 0) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                reference.addEdge(u, v, 1);
+                dynamic.insertEdge(u, v, 1);
+                edges.add(new int[]{u, v});
+            } else {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                boolean existed = reference.removeEdge(edge[0], edge[1]);
+                assertEquals(existed, dynamic.deleteEdge(edge[0], edge[1]));
+            }
+
+            List<List<Integer>> expected = finder.findSCCsTarjan(reference);
+            assertEquals(partition(expected), partition(dynamic.components()));
+            CSRGraph condensation = finder.buildCondensationGraph(reference, expected);
+            assertEquals(condensation.getEdgeCount(), dynamic.condensationEdgeCount());
+        }
+    }
+
+    private static Set<List<Integer>> partition(List<List<Integer>> sccs) {
+        Set<List<Integer>> sets = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            List<Integer> members = new ArrayList<>(scc);
+            Collections.sort(members);
+            sets.add(members);
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,76 @@
+import graph.model.IntGraph;
+import graph.topo.DynamicTopologicalOrder;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class DynamicTopologicalOrderTest {
+
+    @Test
+    public void testInsertAgainstOrderReordersAffectedVertices() {
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(5, new SimpleMetrics());
+        // Empty graph starts in id order
+        assertTrue(topo.precedes(0, 4));
+
+        assertTrue(topo.insertEdge(3, 4, 1));
+        assertTrue(topo.insertEdge(4, 1, 1));
+        assertTrue(topo.precedes(3, 4));
+        assertTrue(topo.precedes(4, 1));
+        assertTrue(topo.insertEdge(1, 0, 1));
+        assertValidOrder(topo);
+        // Vertex 2 lies outside every affected region and never moves
+        assertEquals(2, topo.position(2));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, topo.position(topo.order().get(i)));
+        }
+    }
+
+    @Test
+    public void testCycleIsRejected() {
+        SimpleMetrics metrics = new SimpleMetrics();
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(4, metrics);
+        topo.insertEdge(0, 1, 1);
+        topo.insertEdge(1, 2, 1);
+        topo.insertEdge(2, 3, 1);
+
+        assertFalse(topo.canInsert(3, 0));
+        assertFalse(topo.insertEdge(3, 0, 1));
+        assertFalse(topo.insertEdge(2, 2, 1));
+        assertEquals(3, topo.getGraph().getEdgeCount());
+        assertEquals(2, metrics.getOperationCount("dynamic_topo_cycles"));
+
+        assertTrue(topo.deleteEdge(1, 2));
+        assertTrue(topo.insertEdge(3, 0, 1));
+        assertValidOrder(topo);
+    }
+
+    @Test
+    public void testRandomInsertionsKeepOrderValid() {
+        Random random = new Random(17);
+        int n = 300;
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(n, new SimpleMetrics());
+        int accepted = 0;
+        for (int k = 0; k < 3000; k++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            boolean possible = topo.canInsert(u, v);
+            assertEquals(possible, topo.insertEdge(u, v, 1));
+            if (possible) {
+                accepted++;
+            }
+        }
+        assertEquals(accepted, topo.getGraph().getEdgeCount());
+        assertValidOrder(topo);
+    }
+
+    private static void assertValidOrder(DynamicTopologicalOrder topo) {
+        IntGraph graph = topo.getGraph();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = 0; i < graph.outDegree(u); i++) {
+                assertTrue(topo.precedes(u, graph.neighborAt(u, i)));
+            }
+        }
+    }
+}
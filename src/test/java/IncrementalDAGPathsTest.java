@@ -0,0 +1,109 @@
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.IncrementalDAGPaths;
+import graph.dagsp.PathResult;
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class IncrementalDAGPathsTest {
+
+    @Test
+    public void testIncreaseAndDecreaseMoveCriticalPath() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 4);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 5);
+
+        IncrementalDAGPaths paths = IncrementalDAGPaths.longest(graph, null, 0, new SimpleMetrics());
+        assertEquals(List.of(0, 1, 3, 4), paths.criticalPath().getPath());
+        PathResult tree = paths.asPathResult();
+
+        IncrementalDAGPaths.Update update = paths.updateWeight(2, 3, 10);
+        assertEquals(17, update.getCriticalPath().getLength());
+        assertEquals(List.of(0, 2, 3, 4), update.getCriticalPath().getPath());
+        // The view reads the live arrays, so it follows the batch
+        assertEquals(List.of(0, 2, 3, 4), tree.pathTo(4));
+        assertEquals(17, tree.distance(4));
+        assertEquals(2, update.getTouched());
+        assertEquals(2, update.getChanged());
+
+        update = paths.updateWeights(new int[]{2, 0}, new int[]{3, 1}, new int[]{1, 1});
+        assertEquals(10, update.getCriticalPath().getLength());
+        assertEquals(List.of(0, 1, 3, 4), update.getCriticalPath().getPath());
+
+        // Vertex 2 moves but 3 keeps its distance, so 4 is never touched
+        update = paths.updateWeight(0, 2, 3);
+        assertEquals(2, update.getTouched());
+        assertEquals(1, update.getChanged());
+        assertEquals(10, update.getCriticalPath().getLength());
+        assertEquals(3, paths.getWeight(0, 2));
+    }
+
+    @Test
+    public void testRandomBatchesMatchFullRecomputation() {
+        Random random = new Random(12);
+        int n = 1500;
+        int[][] weight = new int[n][];
+        int[][] target = new int[n][];
+        for (int u = 0; u < n; u++) {
+            Set<Integer> out = new HashSet<>();
+            for (int k = u + 1 < n ? 1 + random.nextInt(3) : 0; k > 0; k--) {
+                out.add(u + 1 + random.nextInt(Math.min(40, n - u - 1)));
+            }
+            target[u] = out.stream().mapToInt(Integer::intValue).toArray();
+            weight[u] = new int[target[u].length];
+            for (int i = 0; i < weight[u].length; i++) {
+                weight[u][i] = random.nextInt(20) - 5;
+            }
+        }
+
+        DAGShortestPath full = new DAGShortestPath(new SimpleMetrics());
+        IncrementalDAGPaths shortest = IncrementalDAGPaths.shortest(build(target, weight), null, 3, new SimpleMetrics());
+        IncrementalDAGPaths longest = IncrementalDAGPaths.longest(build(target, weight), null, 3, new SimpleMetrics());
+        for (int batch = 0; batch < 40; batch++) {
+            int size = 1 + random.nextInt(6);
+            int[] from = new int[size];
+            int[] to = new int[size];
+            int[] newWeights = new int[size];
+            for (int i = 0; i < size; i++) {
+                int u;
+                do {
+                    u = random.nextInt(n);
+                } while (target[u].length == 0);
+                int k = random.nextInt(target[u].length);
+                from[i] = u;
+                to[i] = target[u][k];
+                newWeights[i] = random.nextInt(30) - 10;
+                weight[u][k] = newWeights[i];
+            }
+            shortest.updateWeights(from, to, newWeights);
+            IncrementalDAGPaths.Update update = longest.updateWeights(from, to, newWeights);
+
+            CSRGraph current = build(target, weight);
+            assertArrayEquals(full.shortestPaths(current, 3), shortest.getDistances());
+            assertArrayEquals(full.longestPaths(current, 3), longest.getDistances());
+            assertEquals(full.findCriticalPath(current, 3).getLength(), update.getCriticalPath().getLength());
+            assertEquals(full.findCriticalPath(current, 3).getEndVertex(), update.getCriticalPath().getEndVertex());
+            assertTrue(update.getTouched() < n);
+        }
+    }
+
+    private static CSRGraph build(int[][] target, int[][] weight) {
+        CSRGraph.Builder builder = new CSRGraph.Builder(target.length);
+        for (int u = 0; u < target.length; u++) {
+            for (int i = 0; i < target[u].length; i++) {
+                builder.addEdge(u, target[u][i], weight[u][i]);
+            }
+        }
+        return builder.build();
+    }
+}
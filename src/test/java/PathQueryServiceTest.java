@@ -0,0 +1,175 @@
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.PathQueryService;
+import graph.dagsp.PathResult;
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PathQueryServiceTest {
+
+    private Graph diamond() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 4);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 5);
+        return graph;
+    }
+
+    @Test
+    public void testHitsMissesAndVersionInvalidation() {
+        Graph graph = diamond();
+        SimpleMetrics metrics = new SimpleMetrics();
+        PathQueryService service = new PathQueryService(graph, null, 1 << 20, metrics);
+
+        assertEquals(List.of(0, 2, 3, 4), service.shortestPath(0, 4));
+        assertEquals(8, service.shortestDistance(0, 4));
+        assertEquals(12, service.longestDistance(0, 4));
+        assertEquals(List.of(0, 1, 3, 4), service.longestPath(0, 4));
+        assertEquals(2, metrics.getOperationCount("cache_misses"));
+        assertEquals(2, metrics.getOperationCount("cache_hits"));
+        assertEquals(2, service.getCachedEntries());
+
+        // Edited in place: the old tree must not be served
+        graph.addEdge(0, 3, 1);
+        service.invalidate();
+        assertEquals(1, service.getVersion());
+        assertEquals(0, service.getCachedEntries());
+        assertEquals(List.of(0, 3, 4), service.shortestPath(0, 4));
+        assertEquals(3, metrics.getOperationCount("cache_misses"));
+    }
+
+    @Test
+    public void testByteBudgetEvictsLeastRecentlyUsed() {
+        Graph graph = diamond();
+        SimpleMetrics metrics = new SimpleMetrics();
+        PathQueryService service = new PathQueryService(graph, null, 1 << 20, metrics);
+        service.shortestFrom(0);
+        long entryBytes = service.getCachedBytes();
+
+        // Room for two trees
+        service = new PathQueryService(graph, null, 2 * entryBytes, metrics);
+        metrics.reset();
+        PathResult fromZero = service.shortestFrom(0);
+        service.shortestFrom(1);
+        service.shortestFrom(0);
+        service.shortestFrom(2);
+        assertEquals(1, metrics.getOperationCount("cache_evictions"));
+        assertEquals(2 * entryBytes, service.getCachedBytes());
+
+        // 1 was least recently used, so 0 survived
+        assertSame(fromZero, service.shortestFrom(0));
+        service.shortestFrom(1);
+        assertEquals(4, metrics.getOperationCount("cache_misses"));
+        assertEquals(2, metrics.getOperationCount("cache_evictions"));
+
+        PathQueryService tiny = new PathQueryService(graph, null, entryBytes - 1, metrics);
+        tiny.shortestFrom(0);
+        assertEquals(0, tiny.getCachedEntries());
+    }
+
+    @Test
+    public void testConcurrentIdenticalRequestsComputeOnce() throws Exception {
+        Random random = new Random(5);
+        int n = 20000;
+        Graph graph = new Graph(n);
+        for (int u = 0; u < n - 1; u++) {
+            for (int k = 0; k < 3; k++) {
+                graph.addEdge(u, u + 1 + random.nextInt(Math.min(50, n - 1 - u)), random.nextInt(100));
+            }
+        }
+        CSRGraph dag = CSRGraph.copyOf(graph);
+        SimpleMetrics metrics = new SimpleMetrics();
+        PathQueryService service = new PathQueryService(dag, null, 1 << 24, metrics);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PathResult>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Callable<PathResult> query = () -> {
+                start.await();
+                return service.longestFrom(0);
+            };
+            futures.add(executor.submit(query));
+        }
+        start.countDown();
+        PathResult first = futures.get(0).get();
+        for (Future<PathResult> future : futures) {
+            assertSame(first, future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, metrics.getOperationCount("cache_misses"));
+        assertEquals(threads - 1, metrics.getOperationCount("cache_hits") + metrics.getOperationCount("cache_joins"));
+        // One relaxation's worth of edge checks, however many threads asked
+        SimpleMetrics reference = new SimpleMetrics();
+        int[] expected = new DAGShortestPath(reference).longestPathTree(dag, 0).getDistances();
+        assertEquals(reference.getOperationCount("edge_checks"), metrics.getOperationCount("edge_checks"));
+        assertArrayEquals(expected, first.getDistances());
+    }
+
+    @Test
+    public void testJoinersSeeTheComputingCallersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // An order that holds the computation until released, then turns out to be invalid
+        List<Integer> badOrder = new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalArgumentException("bad order");
+            }
+
+            @Override
+            public int size() {
+                return 5;
+            }
+        };
+        int threads = 3;
+        CountDownLatch joined = new CountDownLatch(threads - 1);
+        SimpleMetrics metrics = new SimpleMetrics() {
+            @Override
+            public void incrementOperation(String operation) {
+                super.incrementOperation(operation);
+                if (operation.equals("cache_joins")) {
+                    joined.countDown();
+                }
+            }
+        };
+        PathQueryService service = new PathQueryService(diamond(), badOrder, 1 << 20, metrics);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<PathResult>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> service.shortestFrom(0)));
+        }
+        joined.await();
+        release.countDown();
+        for (Future<PathResult> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            assertEquals("bad order", e.getCause().getMessage());
+        }
+        executor.shutdown();
+        assertEquals(1, metrics.getOperationCount("cache_misses"));
+        assertEquals(0, service.getCachedEntries());
+    }
+}
@@ -0,0 +1,71 @@
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.PertScheduler;
+import graph.dagsp.Schedule;
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.topo.TopologicalSort;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class PertSchedulerTest {
+
+    @Test
+    public void testScheduleWithDurationsAndSeveralSourcesAndSinks() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 2, 0);
+        graph.addEdge(1, 2, 0);
+        graph.addEdge(1, 3, 0);
+        graph.addEdge(2, 4, 0);
+        graph.addEdge(3, 4, 0);
+        graph.addEdge(3, 5, 0);
+        int[] durations = {3, 2, 4, 2, 1, 3};
+
+        List<Integer> topoOrder = new TopologicalSort(new SimpleMetrics()).topologicalOrderKahn(graph);
+        Schedule schedule = new PertScheduler(new SimpleMetrics()).schedule(graph, topoOrder, durations);
+
+        assertEquals(8, schedule.getProjectLength());
+        assertArrayEquals(new int[]{0, 0, 3, 2, 7, 4}, schedule.getEarliestStart());
+        assertArrayEquals(new int[]{0, 1, 3, 3, 7, 5}, schedule.getLatestStart());
+        assertArrayEquals(new int[]{0, 1, 0, 1, 0, 1}, schedule.getSlack());
+        assertTrue(schedule.isCritical(0) && schedule.isCritical(2) && schedule.isCritical(4));
+        assertEquals(3, schedule.getCriticalCount());
+    }
+
+    @Test
+    public void testEarliestStartsAreLongestDistancesFromSingleSource() {
+        Random random = new Random(4);
+        int n = 5000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int u = 0; u + 1 < n; u++) {
+            builder.addEdge(u, u + 1, random.nextInt(5));
+            builder.addEdge(u, u + 1 + random.nextInt(Math.min(100, n - u - 1)), random.nextInt(20));
+        }
+        CSRGraph dag = builder.build();
+
+        Schedule schedule = new PertScheduler(new SimpleMetrics()).schedule(dag);
+        int[] longest = new DAGShortestPath(new SimpleMetrics()).longestPaths(dag, 0);
+
+        assertArrayEquals(longest, schedule.getEarliestStart());
+        assertEquals(longest[n - 1], schedule.getProjectLength());
+        for (int u = 0; u < n; u++) {
+            assertTrue(schedule.slack(u) >= 0);
+            for (int i = 0; i < dag.outDegree(u); i++) {
+                int v = dag.neighborAt(u, i);
+                assertTrue(schedule.latestStart(u) + dag.weightAt(u, i) <= schedule.latestStart(v));
+            }
+        }
+        assertTrue(schedule.isCritical(0));
+        assertTrue(schedule.isCritical(n - 1));
+    }
+
+    @Test
+    public void testIdOrderRejectsBackwardEdge() {
+        Graph graph = new Graph(2);
+        graph.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> new PertScheduler(new SimpleMetrics()).schedule(graph));
+    }
+}
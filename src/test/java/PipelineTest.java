@@ -0,0 +1,85 @@
+import graph.model.CSRGraph;
+import graph.reorder.VertexOrdering;
+import model.LoadedGraph;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PipelineTest {
+
+    @Test
+    public void testReorderingDoesNotChangeResults() {
+        // Components {0,1,2}, {3,4} and singletons 5, 6, 7, 8; the critical path is unique
+        CSRGraph.Builder builder = new CSRGraph.Builder(9);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(2, 0, 1);
+        builder.addEdge(2, 4, 5);
+        builder.addEdge(4, 3, 2);
+        builder.addEdge(3, 4, 2);
+        builder.addEdge(2, 5, 2);
+        builder.addEdge(5, 6, 1);
+        builder.addEdge(3, 7, 3);
+        builder.addEdge(6, 7, 4);
+        LoadedGraph loaded = new LoadedGraph(builder.build(), 1, true, "edge");
+
+        List<String> expectedOutput = new ArrayList<>();
+        Main.AnalysisResult expected = analyze(loaded, null, expectedOutput);
+        assertEquals(0, expected.sourceComponent);
+        assertEquals(List.of(0, 3, 7), expected.criticalPath);
+        assertArrayEquals(new int[]{0, 0, 0, 3, 3, 5, 6, 7, 8}, expected.sccLeaders);
+
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            List<String> output = new ArrayList<>();
+            Main.AnalysisResult result = analyze(loaded, strategy, output);
+            assertEquals(expectedOutput, output, strategy.toString());
+            assertEquals(expected.sccCount, result.sccCount);
+            assertEquals(expected.sourceComponent, result.sourceComponent);
+            assertArrayEquals(expected.sccLeaders, result.sccLeaders);
+            assertArrayEquals(expected.shortestDistances, result.shortestDistances);
+            assertEquals(expected.criticalPath, result.criticalPath);
+            assertEquals(expected.criticalPathLength, result.criticalPathLength);
+            assertEquals(expected.reachableComponents, result.reachableComponents);
+        }
+    }
+
+    @Test
+    public void testShortestAndCriticalPathsAggregateParallelEdgesDifferently() {
+        // Cycle {0,1} reaches 2 over a cheap and an expensive edge
+        CSRGraph.Builder builder = new CSRGraph.Builder(3);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 0, 1);
+        builder.addEdge(0, 2, 9);
+        builder.addEdge(1, 2, 2);
+        LoadedGraph loaded = new LoadedGraph(builder.build(), 0, true, "edge");
+
+        Main.AnalysisResult result = analyze(loaded, null, new ArrayList<>());
+        assertArrayEquals(new int[]{0, 0, 2}, result.shortestDistances);
+        assertEquals(9, result.criticalPathLength);
+    }
+
+    // Runs the pipeline and collects what it prints, minus timings and the relabeling notice
+    private static Main.AnalysisResult analyze(LoadedGraph loaded, VertexOrdering.Strategy reorder,
+                                               List<String> lines) {
+        PrintStream out = System.out;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Main.AnalysisResult result;
+        try {
+            System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+            result = Main.analyze(loaded, reorder, "test");
+        } finally {
+            System.setOut(out);
+        }
+        for (String line : buffer.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.startsWith("Time:") && !line.startsWith("Relabeled") && !line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+import graph.model.Graph;
+import graph.scc.SCCFinder;
+import graph.scc.SCCResult;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class SCCResultTest {
+
+    private Graph twoCyclesAndATail() {
+        Graph graph = new Graph(7);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        graph.addEdge(4, 5, 1);
+        graph.addEdge(5, 6, 1);
+        return graph;
+    }
+
+    @Test
+    public void testComponentIdsMatchListView() {
+        SCCResult sccs = new SCCFinder(new SimpleMetrics()).findSCCsTarjan(twoCyclesAndATail());
+
+        assertEquals(4, sccs.componentCount());
+        assertEquals(7, sccs.vertexCount());
+        for (int c = 0; c < sccs.size(); c++) {
+            List<Integer> members = sccs.get(c);
+            assertEquals(sccs.componentSize(c), members.size());
+            for (int i = 0; i < members.size(); i++) {
+                assertEquals(c, sccs.componentOf(members.get(i)));
+                assertEquals((int) members.get(i), sccs.member(c, i));
+            }
+        }
+        assertArrayEquals(new int[]{0, 2, 1, 1}, sccs.sizeHistogram());
+        assertEquals(3, sccs.componentSize(sccs.largestComponent()));
+        assertTrue(sccs.get(sccs.largestComponent()).contains(0));
+    }
+
+    @Test
+    public void testOfAndFromComponentIds() {
+        SCCResult packed = SCCResult.of(List.of(List.of(2, 0), List.of(1)), 3);
+        assertEquals(List.of(List.of(2, 0), List.of(1)), packed);
+        assertArrayEquals(new int[]{0, 1, 0}, packed.componentIds());
+
+        SCCResult grouped = SCCResult.fromComponentIds(new int[]{1, 0, 1, 1}, 2);
+        assertEquals(List.of(List.of(1), List.of(0, 2, 3)), grouped);
+        assertSame(grouped, SCCResult.of(grouped, 4));
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        SCCResult sccs = new SCCFinder(new SimpleMetrics()).findSCCsKosaraju(new Graph(0));
+        assertTrue(sccs.isEmpty());
+        assertEquals(-1, sccs.largestComponent());
+        assertArrayEquals(new int[]{0}, sccs.sizeHistogram());
+    }
+}
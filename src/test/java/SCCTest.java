@@ -1,10 +1,18 @@
 import graph.scc.SCCFinder;
+import graph.scc.TopologicalCondensation;
+import graph.scc.WeightAggregate;
+import graph.model.CSRGraph;
 import graph.model.Graph;
 import metrics.SimpleMetrics;
+import utils.GraphGenerator;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 public class SCCTest {
 
@@ -82,4 +90,195 @@ public class SCCTest {
         assertEquals(3, tarjanSCCs.size());
         assertEquals(3, kosarajuSCCs.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLongPathDoesNotOverflowStack() {
+        int n = 2_000_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int v = 0; v + 1 < n; v++) {
+            builder.addEdge(v, v + 1, 1);
+        }
+        CSRGraph path = builder.build();
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        SCCFinder finder = new SCCFinder(metrics);
+        List<List<Integer>> tarjanSCCs = finder.findSCCsTarjan(path);
+        assertEquals(n, tarjanSCCs.size());
+        // The tail of the chain closes first
+        assertEquals(List.of(n - 1), tarjanSCCs.get(0));
+        assertEquals(n, metrics.getOperationCount("DFS_visits"));
+        assertEquals(n - 1, metrics.getOperationCount("DFS_edges"));
+
+        List<List<Integer>> kosarajuSCCs = finder.findSCCsKosaraju(path);
+        assertEquals(n, kosarajuSCCs.size());
+        assertEquals(List.of(0), kosarajuSCCs.get(0));
+    }
+
+    @Test
+    public void testLongCycleIsOneComponent() {
+        int n = 1_000_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int v = 0; v < n; v++) {
+            builder.addEdge(v, (v + 1) % n, 1);
+        }
+        CSRGraph cycle = builder.build();
+
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        assertEquals(n, finder.findSCCsTarjan(cycle).get(0).size());
+        assertEquals(n, finder.findSCCsKosaraju(cycle).get(0).size());
+    }
+
+    @Test
+    public void testParallelMatchesTarjanOnSmallGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(3, 4, 1);
+
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<List<Integer>> sccs = finder.findSCCsParallel(graph, 2);
+
+        assertEquals(List.of(List.of(0, 1, 2), List.of(3), List.of(4)), sccs);
+    }
+
+    @Test
+    public void testParallelMatchesTarjanOnLargeGraphs() {
+        GraphGenerator generator = new GraphGenerator();
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        for (double backEdges : new double[]{0.0, 0.05, 0.3}) {
+            CSRGraph grid = generator.generateCityGrid(150, 150, backEdges, backEdges > 0);
+            List<List<Integer>> expected = canonical(finder.findSCCsTarjan(grid));
+            assertEquals(expected, finder.findSCCsParallel(grid, 4));
+        }
+
+        // Random out-edges give one giant component whose search levels are wide enough to split
+        Random random = new Random(11);
+        int n = 50_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int v = 0; v < n; v++) {
+            for (int k = random.nextInt(4); k > 0; k--) {
+                builder.addEdge(v, random.nextInt(n), 1);
+            }
+        }
+        CSRGraph randomGraph = builder.build();
+        assertEquals(canonical(finder.findSCCsTarjan(randomGraph)), finder.findSCCsParallel(randomGraph, 3));
+    }
+
+    @Test
+    public void testTrimPeelsSingletonsAndPairs() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        graph.addEdge(4, 5, 1);
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        SCCFinder finder = new SCCFinder(metrics);
+        finder.setTrim(SCCFinder.Trim.SINGLETONS_AND_PAIRS);
+        List<List<Integer>> sccs = finder.findSCCsTarjan(graph);
+
+        assertEquals(4, sccs.size());
+        assertEquals(2, metrics.getOperationCount("trim1_vertices"));
+        assertEquals(4, metrics.getOperationCount("trim2_vertices"));
+        // Everything was trimmed, so the DFS never started
+        assertEquals(0, metrics.getOperationCount("DFS_visits"));
+        assertFalse(graph.hasReverseAdjacency());
+    }
+
+    @Test
+    public void testTrimmingKeepsComponents() {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(120, 120, 0.15, true);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<List<Integer>> expected = canonical(finder.findSCCsTarjan(grid));
+
+        for (SCCFinder.Trim trim : SCCFinder.Trim.values()) {
+            finder.setTrim(trim);
+            assertEquals(expected, canonical(finder.findSCCsTarjan(grid)));
+            assertEquals(expected, canonical(finder.findSCCsKosaraju(grid)));
+        }
+    }
+
+    private static int componentContaining(List<List<Integer>> sccs, int vertex) {
+        for (int i = 0; i < sccs.size(); i++) {
+            if (sccs.get(i).contains(vertex)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Members ascending, components ordered by smallest member
+    private static List<List<Integer>> canonical(List<List<Integer>> sccs) {
+        List<List<Integer>> sorted = new ArrayList<>();
+        for (List<Integer> scc : sccs) {
+            List<Integer> members = new ArrayList<>(scc);
+            Collections.sort(members);
+            sorted.add(members);
+        }
+        sorted.sort(Comparator.comparing(members -> members.get(0)));
+        return sorted;
+    }
+
+    @Test
+    public void testCondensationAggregatesEdgeWeights() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(1, 2, 7);
+        graph.addEdge(2, 3, 5);
+
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<List<Integer>> sccs = finder.findSCCsTarjan(graph);
+        int a = componentContaining(sccs, 0);
+        int b = componentContaining(sccs, 2);
+
+        assertEquals(1, finder.buildCondensationGraph(graph, sccs).getWeight(a, b));
+        assertEquals(4, finder.buildCondensationGraph(graph, sccs, WeightAggregate.MIN).getWeight(a, b));
+        assertEquals(7, finder.buildCondensationGraph(graph, sccs, WeightAggregate.MAX).getWeight(a, b));
+        CSRGraph summed = finder.buildCondensationGraph(graph, sccs, WeightAggregate.SUM);
+        assertEquals(11, summed.getWeight(a, b));
+        assertEquals(2, summed.getEdgeCount());
+    }
+
+    @Test
+    public void testParallelCondensationMatchesSequential() {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(200, 200, 0.2, true);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<List<Integer>> sccs = finder.findSCCsTarjan(grid);
+
+        for (WeightAggregate aggregate : WeightAggregate.values()) {
+            CSRGraph sequential = finder.buildCondensationGraph(grid, sccs, aggregate);
+            CSRGraph parallel = finder.buildCondensationGraph(grid, sccs, aggregate, 4);
+            assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+            for (int u = 0; u < sequential.getVertexCount(); u++) {
+                assertEquals(sequential.outDegree(u), parallel.outDegree(u));
+                for (int i = 0; i < sequential.outDegree(u); i++) {
+                    assertEquals(sequential.neighborAt(u, i), parallel.neighborAt(u, i));
+                    assertEquals(sequential.weightAt(u, i), parallel.weightAt(u, i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTopologicalCondensationNumbersComponentsInOrder() {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(120, 120, 0.1, true);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        TopologicalCondensation fused = finder.condenseTopologically(grid, WeightAggregate.MAX);
+
+        assertEquals(canonical(finder.findSCCsTarjan(grid)), canonical(fused.getComponents()));
+        CSRGraph condensation = fused.getCondensation();
+        assertEquals(fused.getComponentCount(), condensation.getVertexCount());
+        for (int u = 0; u < condensation.getVertexCount(); u++) {
+            for (int i = 0; i < condensation.outDegree(u); i++) {
+                assertTrue(u < condensation.neighborAt(u, i));
+            }
+        }
+    }
+}
@@ -1,11 +1,22 @@
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.DistanceTable;
+import graph.dagsp.NearestSources;
+import graph.dagsp.PathResult;
 import graph.topo.TopologicalSort;
+import graph.model.CSRGraph;
 import graph.model.Graph;
+import graph.model.ReverseAdjacency;
 import metrics.SimpleMetrics;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 public class ShortestPathTest {
 
@@ -77,4 +88,207 @@ public class ShortestPathTest {
         assertTrue(criticalPath.getPath().contains(3));
         assertTrue(criticalPath.getPath().contains(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIdOrderMatchesExplicitOrder() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 4);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 5);
+
+        List<Integer> topoOrder = new TopologicalSort(new SimpleMetrics()).topologicalOrderKahn(graph);
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+
+        assertArrayEquals(spFinder.shortestPaths(graph, topoOrder, 0), spFinder.shortestPaths(graph, 0));
+        assertArrayEquals(spFinder.longestPaths(graph, topoOrder, 0), spFinder.longestPaths(graph, 0));
+        DAGShortestPath.CriticalPathResult criticalPath = spFinder.findCriticalPath(graph, 0);
+        assertEquals(12, criticalPath.getLength());
+        assertEquals(List.of(0, 1, 3, 4), criticalPath.getPath());
+    }
+
+    @Test
+    public void testIdOrderRejectsBackwardEdge() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(2, 1, 1);
+
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+        assertThrows(IllegalArgumentException.class, () -> spFinder.shortestPaths(graph, 0));
+    }
+
+    @Test
+    public void testPathTreeGivesPathsToEveryTarget() {
+        Graph graph = new Graph(7);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 2, 3);
+        graph.addEdge(1, 3, 6);
+        graph.addEdge(2, 3, 7);
+        graph.addEdge(2, 4, 4);
+        graph.addEdge(3, 4, -1);
+        graph.addEdge(4, 5, -2);
+
+        List<Integer> topoOrder = new TopologicalSort(new SimpleMetrics()).topologicalOrderKahn(graph);
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+        PathResult shortest = spFinder.shortestPathTree(graph, topoOrder, 0);
+
+        assertArrayEquals(spFinder.shortestPaths(graph, topoOrder, 0), shortest.getDistances());
+        assertEquals(List.of(0, 2, 4, 5), shortest.pathTo(5));
+        assertEquals(List.of(0), shortest.pathTo(0));
+        assertEquals(PathResult.NO_PARENT, shortest.parent(0));
+        assertFalse(shortest.isReachable(6));
+        assertTrue(shortest.pathTo(6).isEmpty());
+        assertEquals(shortest.pathTo(5), spFinder.reconstructPath(graph, shortest.getDistances(), 0, 5));
+
+        PathResult longest = spFinder.longestPathTree(graph, 0);
+        assertEquals(List.of(0, 1, 3, 4, 5), longest.pathTo(5));
+        assertEquals(8, longest.distance(5));
+    }
+
+    @Test
+    public void testPathExtractionOnLongChain() {
+        int n = 300_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int v = 0; v + 1 < n; v++) {
+            builder.addEdge(v, v + 1, 1);
+        }
+        CSRGraph chain = builder.build();
+
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+        PathResult tree = spFinder.shortestPathTree(chain, 0);
+        List<Integer> path = tree.pathTo(n - 1);
+        assertEquals(n, path.size());
+        assertEquals(n - 1, (int) path.get(n - 1));
+        assertEquals(path, spFinder.reconstructPath(chain, tree.getDistances(), 0, n - 1));
+        assertEquals(path, spFinder.findCriticalPath(chain, 0).getPath());
+    }
+
+    @Test
+    public void testReconstructPathNeverBuildsATranspose() {
+        CSRGraph.Builder builder = new CSRGraph.Builder(5)
+                .setReverseAdjacency(ReverseAdjacency.DISABLED);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(0, 2, 3);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(1, 3, 9);
+        builder.addEdge(2, 3, 4);
+        CSRGraph disabled = builder.build();
+
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+        int[] dist = spFinder.shortestPaths(disabled, 0);
+        assertEquals(List.of(0, 1, 2, 3), spFinder.reconstructPath(disabled, dist, 0, 3));
+        assertTrue(spFinder.reconstructPath(disabled, dist, 0, 4).isEmpty());
+
+        CSRGraph lazy = CSRGraph.copyOf(disabled);
+        assertEquals(List.of(0, 1, 2, 3), spFinder.reconstructPath(lazy, dist, 0, 3));
+        assertFalse(lazy.hasReverseAdjacency());
+        // With in-edges already built, the walk uses them and picks the same predecessors
+        lazy.inDegree(0);
+        assertEquals(List.of(0, 1, 2, 3), spFinder.reconstructPath(lazy, dist, 0, 3));
+    }
+
+    @Test
+    public void testBatchSourcesMatchSingleSourceRuns() {
+        Random random = new Random(21);
+        int n = 2000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int u = 0; u + 1 < n; u++) {
+            for (int k = random.nextInt(4); k > 0; k--) {
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(50, n - u - 1)), 1 + random.nextInt(9));
+            }
+        }
+        CSRGraph dag = builder.build();
+        List<Integer> topoOrder = new TopologicalSort(new SimpleMetrics()).topologicalOrderKahn(dag);
+        // 19 sources: two full blocks and a partial one, with a repeated source
+        int[] sources = new int[19];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(n / 2);
+        }
+        sources[7] = sources[3];
+
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+        DistanceTable shortest = spFinder.shortestPathsFromSources(dag, topoOrder, sources, 3);
+        DistanceTable longest = spFinder.longestPathsFromSources(dag, topoOrder, sources, 3);
+        assertEquals(sources.length, shortest.sourceCount());
+        for (int i = 0; i < sources.length; i++) {
+            assertArrayEquals(spFinder.shortestPaths(dag, topoOrder, sources[i]), shortest.distancesFrom(i));
+            assertArrayEquals(spFinder.longestPaths(dag, topoOrder, sources[i]), longest.distancesFrom(i));
+        }
+
+        NearestSources nearest = spFinder.nearestSources(dag, topoOrder, sources);
+        for (int v = 0; v < n; v++) {
+            int best = Integer.MAX_VALUE;
+            int bestSource = NearestSources.NONE;
+            for (int i = 0; i < sources.length; i++) {
+                int d = shortest.distance(i, v);
+                if (d < best || (d == best && d != Integer.MAX_VALUE && sources[i] < bestSource)) {
+                    best = d;
+                    bestSource = sources[i];
+                }
+            }
+            assertEquals(best, nearest.distance(v));
+            assertEquals(bestSource, nearest.nearestSource(v));
+        }
+    }
+
+    @Test
+    public void testTopCriticalPathsMatchBruteForce() {
+        Random random = new Random(8);
+        int n = 14;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int u = 0; u + 1 < n; u++) {
+            Set<Integer> targets = new HashSet<>();
+            for (int k = 1 + random.nextInt(3); k > 0; k--) {
+                targets.add(u + 1 + random.nextInt(n - u - 1));
+            }
+            for (int v : targets) {
+                builder.addEdge(u, v, random.nextInt(10));
+            }
+        }
+        CSRGraph dag = builder.build();
+        List<Integer> all = new ArrayList<>();
+        collectPathLengths(dag, 0, 0, all);
+        all.sort(Collections.reverseOrder());
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        DAGShortestPath spFinder = new DAGShortestPath(metrics);
+        Iterator<DAGShortestPath.CriticalPathResult> paths = spFinder.criticalPaths(dag, 0);
+        Set<List<Integer>> seen = new HashSet<>();
+        for (int expected : all) {
+            DAGShortestPath.CriticalPathResult path = paths.next();
+            assertEquals(expected, path.getLength());
+            assertEquals(0, (int) path.getPath().get(0));
+            assertEquals(0, dag.outDegree(path.getEndVertex()));
+            assertEquals(expected, pathLength(dag, path.getPath()));
+            seen.add(path.getPath());
+        }
+        assertFalse(paths.hasNext());
+        assertEquals(all.size(), seen.size());
+        // Every path is queued exactly once, besides the initial critical path
+        assertEquals(all.size() - 1, metrics.getOperationCount("topk_candidates"));
+
+        List<DAGShortestPath.CriticalPathResult> top = spFinder.findTopCriticalPaths(dag, 0, 3);
+        assertEquals(3, top.size());
+        assertEquals(spFinder.findCriticalPath(dag, 0).getLength(), top.get(0).getLength());
+    }
+
+    // Lengths of every path from u to a sink, by brute force
+    private static void collectPathLengths(CSRGraph dag, int u, int length, List<Integer> lengths) {
+        if (dag.outDegree(u) == 0) {
+            lengths.add(length);
+            return;
+        }
+        for (int i = 0; i < dag.outDegree(u); i++) {
+            collectPathLengths(dag, dag.neighborAt(u, i), length + dag.weightAt(u, i), lengths);
+        }
+    }
+
+    private static int pathLength(CSRGraph dag, List<Integer> path) {
+        int length = 0;
+        for (int k = 0; k + 1 < path.size(); k++) {
+            length += dag.getWeight(path.get(k), path.get(k + 1));
+        }
+        return length;
+    }
+}
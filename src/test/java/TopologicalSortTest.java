@@ -1,10 +1,14 @@
+import graph.topo.TopologicalLevels;
 import graph.topo.TopologicalSort;
+import graph.topo.TopoSortResult;
+import graph.model.CSRGraph;
 import graph.model.Graph;
 import metrics.SimpleMetrics;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
+import java.util.Random;
 
 public class TopologicalSortTest {
 
@@ -63,4 +67,118 @@ public class TopologicalSortTest {
         assertTrue(kahnOrder.indexOf(2) < kahnOrder.indexOf(3));
         assertTrue(kahnOrder.indexOf(3) < kahnOrder.indexOf(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelLevels() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 4, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(0, 5, 1);
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        TopologicalLevels levels = new TopologicalSort(metrics).topologicalLevelsParallel(graph, 2);
+
+        assertEquals(List.of(0, 1, 2, 3, 5, 4), levels.asList());
+        assertArrayEquals(new int[]{0, 2, 5, 6}, levels.levelOffsets());
+        assertEquals(3, levels.width());
+        assertEquals(6, metrics.getOperationCount("inDegree_calc"));
+        assertEquals(6, metrics.getOperationCount("queue_pushes"));
+        assertEquals(6, metrics.getOperationCount("queue_pops"));
+
+        // The graph is numbered topologically, so one id-order sweep gives the same levels
+        TopologicalLevels swept = new TopologicalSort(new SimpleMetrics()).topologicalLevels(graph);
+        assertArrayEquals(levels.order(), swept.order());
+        assertArrayEquals(levels.levelOffsets(), swept.levelOffsets());
+    }
+
+    @Test
+    public void testParallelLevelsOnWideDAG() {
+        // Layers of 20k vertices, each vertex feeding a few random vertices of the next layer
+        int layers = 8;
+        int width = 20_000;
+        Random random = new Random(3);
+        CSRGraph.Builder builder = new CSRGraph.Builder(layers * width);
+        for (int layer = 0; layer + 1 < layers; layer++) {
+            for (int i = 0; i < width; i++) {
+                for (int k = 0; k < 3; k++) {
+                    builder.addEdge(layer * width + i, (layer + 1) * width + random.nextInt(width), 1);
+                }
+            }
+        }
+        CSRGraph graph = builder.build();
+
+        TopologicalLevels levels = new TopologicalSort(new SimpleMetrics()).topologicalLevelsParallel(graph, 4);
+
+        assertEquals(graph.getVertexCount(), levels.order().length);
+        int[] levelOf = levels.levelOfVertices();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = 0; i < graph.outDegree(u); i++) {
+                assertTrue(levelOf[u] < levelOf[graph.neighborAt(u, i)]);
+            }
+        }
+        assertArrayEquals(levels.order(), new TopologicalSort(new SimpleMetrics())
+                .topologicalLevelsParallel(graph, 1).order());
+        TopologicalLevels swept = new TopologicalSort(new SimpleMetrics()).topologicalLevels(graph);
+        assertArrayEquals(levels.order(), swept.order());
+        assertArrayEquals(levels.levelOffsets(), swept.levelOffsets());
+    }
+
+    @Test
+    public void testParallelLevelsDetectCycle() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+
+        TopologicalSort topoSort = new TopologicalSort(new SimpleMetrics());
+        assertThrows(IllegalArgumentException.class, () -> topoSort.topologicalLevelsParallel(graph, 2));
+        assertThrows(IllegalArgumentException.class, () -> topoSort.topologicalLevels(graph));
+    }
+
+    @Test
+    public void testDFSReportsCycleWitness() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 1, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(5, 0, 1);
+
+        TopologicalSort topoSort = new TopologicalSort(new SimpleMetrics());
+        TopoSortResult result = topoSort.topologicalSortDFS(graph);
+
+        assertFalse(result.isAcyclic());
+        assertTrue(result.getOrder().isEmpty());
+        assertEquals(List.of(1, 2, 3), result.getCycle());
+        assertEquals("1 -> 2 -> 3 -> 1", result.describeCycle());
+
+        IllegalArgumentException kahnFailure = assertThrows(IllegalArgumentException.class,
+                () -> topoSort.topologicalOrderKahn(graph));
+        assertTrue(kahnFailure.getMessage().endsWith("1 -> 2 -> 3 -> 1"));
+        assertThrows(IllegalArgumentException.class, () -> topoSort.topologicalOrderDFS(graph));
+    }
+
+    @Test
+    public void testDFSHandlesDeepChainsAndSelfLoops() {
+        // Deep enough that a recursive DFS would overflow the stack
+        int n = 1_000_000;
+        Graph chain = new Graph(n);
+        for (int v = n - 1; v > 0; v--) {
+            chain.addEdge(v, v - 1, 1);
+        }
+        TopoSortResult result = new TopologicalSort(new SimpleMetrics()).topologicalSortDFS(chain);
+        assertTrue(result.isAcyclic());
+        assertEquals(n - 1, (int) result.getOrder().get(0));
+        assertEquals(0, (int) result.getOrder().get(n - 1));
+
+        Graph selfLoop = new Graph(3);
+        selfLoop.addEdge(0, 1, 1);
+        selfLoop.addEdge(1, 1, 1);
+        assertEquals(List.of(1), new TopologicalSort(new SimpleMetrics()).topologicalSortDFS(selfLoop).getCycle());
+    }
+}
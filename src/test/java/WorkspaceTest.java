@@ -0,0 +1,104 @@
+import graph.dagsp.DAGShortestPath;
+import graph.model.CSRGraph;
+import graph.scc.SCCFinder;
+import graph.scc.SCCResult;
+import graph.topo.TopologicalSort;
+import graph.util.Workspace;
+import metrics.Metrics;
+import metrics.NoOpMetrics;
+import metrics.SimpleMetrics;
+import utils.GraphGenerator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+public class WorkspaceTest {
+
+    @Test
+    public void testWorkspaceResultsMatchAllocatingVersions() {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(80, 80, 0.1, true);
+        CSRGraph dag = randomDag(3000, 5);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        TopologicalSort topoSort = new TopologicalSort(new SimpleMetrics());
+        DAGShortestPath paths = new DAGShortestPath(new SimpleMetrics());
+        Workspace workspace = new Workspace();
+
+        // A smaller graph first, so buffers are reused with stale contents past n
+        finder.findSCCsTarjan(dag, workspace);
+        SCCResult sccs = finder.findSCCsTarjan(grid, workspace);
+        assertEquals(finder.findSCCsTarjan(grid), sccs);
+        assertEquals(grid.getVertexCount(), sccs.vertexCount());
+
+        List<Integer> expectedOrder = topoSort.topologicalOrderKahn(dag);
+        int[] order = topoSort.topologicalOrderKahn(dag, workspace);
+        for (int i = 0; i < dag.getVertexCount(); i++) {
+            assertEquals((int) expectedOrder.get(i), order[i]);
+        }
+        int[] shortest = paths.shortestPaths(dag, order, 0, workspace);
+        int[] longest = paths.longestPaths(dag, order, 0, workspace);
+        int[] expectedShortest = paths.shortestPaths(dag, expectedOrder, 0);
+        int[] expectedLongest = paths.longestPaths(dag, expectedOrder, 0);
+        for (int v = 0; v < dag.getVertexCount(); v++) {
+            assertEquals(expectedShortest[v], shortest[v]);
+            assertEquals(expectedLongest[v], longest[v]);
+        }
+    }
+
+    @Test
+    public void testSteadyStatePipelineAllocatesNothing() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        CSRGraph grid = new GraphGenerator().generateCityGrid(60, 60, 0.1, true);
+        CSRGraph dag = randomDag(5000, 4);
+        Metrics metrics = new NoOpMetrics();
+        SCCFinder finder = new SCCFinder(metrics);
+        TopologicalSort topoSort = new TopologicalSort(metrics);
+        DAGShortestPath paths = new DAGShortestPath(metrics);
+        Workspace workspace = new Workspace();
+
+        long checksum = 0;
+        for (int warmup = 0; warmup < 50; warmup++) {
+            checksum += runPipeline(grid, dag, finder, topoSort, paths, workspace);
+        }
+        long threadId = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(threadId);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int run = 0; run < 100; run++) {
+            checksum += runPipeline(grid, dag, finder, topoSort, paths, workspace);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum != 0);
+        assertEquals(0, allocated, "bytes allocated by 100 warmed-up pipeline runs");
+    }
+
+    private static long runPipeline(CSRGraph grid, CSRGraph dag, SCCFinder finder, TopologicalSort topoSort,
+                                    DAGShortestPath paths, Workspace workspace) {
+        SCCResult sccs = finder.findSCCsTarjan(grid, workspace);
+        int[] order = topoSort.topologicalOrderKahn(dag, workspace);
+        int[] dist = paths.shortestPaths(dag, order, order[0], workspace);
+        int[] longest = paths.longestPaths(dag, order, order[0], workspace);
+        return sccs.componentCount() + dist[dag.getVertexCount() - 1] + longest[dag.getVertexCount() - 1];
+    }
+
+    // Edges only from lower to higher ids
+    private static CSRGraph randomDag(int n, int degree) {
+        Random random = new Random(9);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int u = 0; u + 1 < n; u++) {
+            builder.addEdge(u, u + 1, 1 + random.nextInt(5));
+            for (int k = 1; k < degree; k++) {
+                builder.addEdge(u, u + 1 + random.nextInt(n - u - 1), 1 + random.nextInt(9));
+            }
+        }
+        return builder.build();
+    }
+}
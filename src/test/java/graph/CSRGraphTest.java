@@ -0,0 +1,110 @@
+package graph;
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.model.ReverseAdjacency;
+import graph.scc.SCCFinder;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class CSRGraphTest {
+
+    @Test
+    public void testBuilderKeepsInsertionOrder() {
+        CSRGraph graph = new CSRGraph.Builder(4)
+                .addEdge(0, 3, 7)
+                .addEdge(0, 1, 5)
+                .addEdge(2, 1, 2)
+                .addEdge(1, 2, 3)
+                .build();
+
+        assertEquals(4, graph.getVertexCount());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(2, graph.outDegree(0));
+        assertEquals(3, graph.neighborAt(0, 0));
+        assertEquals(1, graph.neighborAt(0, 1));
+        assertEquals(5, graph.weightAt(0, 1));
+        assertEquals(3, graph.getWeight(1, 2));
+        assertTrue(graph.hasEdge(2, 1));
+        assertFalse(graph.hasEdge(1, 0));
+
+        assertEquals(2, graph.inDegree(1));
+        assertEquals(0, graph.reverseNeighborAt(1, 0));
+        assertEquals(2, graph.reverseNeighborAt(1, 1));
+    }
+
+    @Test
+    public void testCopyOfMatchesAdjacencyGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(1, 3, 4);
+        graph.addEdge(3, 4, 2);
+
+        CSRGraph csr = CSRGraph.copyOf(graph);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        List<List<Integer>> expected = finder.findSCCsTarjan(graph);
+
+        assertEquals(expected, finder.findSCCsTarjan(csr));
+        assertEquals(4, csr.getWeight(1, 3));
+    }
+
+    @Test
+    public void testBuildRejectsOutOfRangeVertex() {
+        CSRGraph.Builder builder = new CSRGraph.Builder(2).addEdge(0, 2, 1);
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequentialBuild() {
+        Random random = new Random(11);
+        CSRGraph.Builder builder = new CSRGraph.Builder(500).setReverseAdjacency(ReverseAdjacency.EAGER);
+        for (int e = 0; e < 50000; e++) {
+            builder.addEdge(random.nextInt(500), random.nextInt(500), random.nextInt(10));
+        }
+
+        CSRGraph sequential = builder.build();
+        CSRGraph parallel = builder.buildParallel(4);
+
+        for (int u = 0; u < 500; u++) {
+            assertEquals(sequential.outDegree(u), parallel.outDegree(u));
+            assertEquals(sequential.inDegree(u), parallel.inDegree(u));
+            for (int i = 0; i < sequential.outDegree(u); i++) {
+                assertEquals(sequential.neighborAt(u, i), parallel.neighborAt(u, i));
+                assertEquals(sequential.weightAt(u, i), parallel.weightAt(u, i));
+            }
+            for (int i = 0; i < sequential.inDegree(u); i++) {
+                assertEquals(sequential.reverseNeighborAt(u, i), parallel.reverseNeighborAt(u, i));
+            }
+        }
+    }
+
+    @Test
+    public void testLazyReverseIsBuiltOnDemandAndReleased() {
+        CSRGraph graph = new CSRGraph.Builder(3).addEdge(0, 1, 1).addEdge(2, 1, 1).build();
+
+        assertFalse(graph.hasReverseAdjacency());
+        assertEquals(2, graph.inDegree(1));
+        assertTrue(graph.hasReverseAdjacency());
+
+        graph.releaseReverseAdjacency();
+        assertFalse(graph.hasReverseAdjacency());
+        assertEquals(2, graph.reverseNeighborAt(1, 1));
+    }
+
+    @Test
+    public void testDisabledReverseRejectsInNeighborAccess() {
+        CSRGraph graph = new CSRGraph.Builder(2)
+                .setReverseAdjacency(ReverseAdjacency.DISABLED)
+                .addEdge(0, 1, 1)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> graph.inDegree(1));
+        assertThrows(IllegalStateException.class,
+                () -> new SCCFinder(new SimpleMetrics()).findSCCsKosaraju(graph));
+    }
+}
@@ -0,0 +1,183 @@
+package graph;
+import graph.model.CSRGraph;
+import graph.model.CompressedGraph;
+import graph.model.NeighborCursor;
+import graph.scc.SCCFinder;
+import graph.topo.TopoSortResult;
+import graph.topo.TopologicalSort;
+import graph.dagsp.DAGShortestPath;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class CompressedGraphTest {
+
+    private static CSRGraph randomGraph(int n, int m, int span, boolean acyclic, long seed) {
+        Random random = new Random(seed);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for (int e = 0; e < m; e++) {
+            int u = random.nextInt(n);
+            int v = Math.min(n - 1, Math.max(0, u + random.nextInt(2 * span + 1) - span));
+            if (acyclic && u >= v) continue;
+            builder.addEdge(u, v, random.nextInt(200) - 50);
+        }
+        // One hub row long enough to need several checkpoints
+        for (int v = 1; v < Math.min(n, 70); v++) {
+            builder.addEdge(0, v, v);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testDecodesSameEdgesAsCSR() {
+        CSRGraph csr = randomGraph(300, 3000, 20, false, 3);
+        CompressedGraph compressed = CompressedGraph.compress(csr);
+        NeighborCursor cursor = compressed.neighborCursor();
+
+        assertEquals(csr.getEdgeCount(), compressed.getEdgeCount());
+        for (int u = 0; u < csr.getVertexCount(); u++) {
+            int degree = csr.outDegree(u);
+            assertEquals(degree, compressed.outDegree(u));
+
+            long[] expected = new long[degree];
+            for (int i = 0; i < degree; i++) {
+                expected[i] = ((long) csr.neighborAt(u, i) << 32) | (csr.weightAt(u, i) & 0xFFFFFFFFL);
+            }
+            long[] positional = new long[degree];
+            long[] sequential = new long[degree];
+            cursor.reset(u);
+            for (int i = 0; i < degree; i++) {
+                positional[i] = ((long) compressed.neighborAt(u, i) << 32) | (compressed.weightAt(u, i) & 0xFFFFFFFFL);
+                assertTrue(cursor.next());
+                sequential[i] = ((long) cursor.target() << 32) | (cursor.weight() & 0xFFFFFFFFL);
+            }
+            assertFalse(cursor.next());
+
+            Arrays.sort(expected);
+            assertArrayEquals(positional, sequential);
+            Arrays.sort(positional);
+            assertArrayEquals(expected, positional);
+        }
+        assertEquals(csr.getWeight(0, 42), compressed.getWeight(0, 42));
+        assertTrue(compressed.hasEdge(0, 69));
+        assertEquals(csr.inDegree(5), compressed.inDegree(5));
+    }
+
+    @Test
+    public void testAlgorithmsAgreeWithCSR() {
+        CSRGraph csr = randomGraph(400, 4000, 30, true, 5);
+        CompressedGraph compressed = CompressedGraph.compress(csr);
+
+        TopologicalSort topoSort = new TopologicalSort(new SimpleMetrics());
+        List<Integer> order = topoSort.topologicalOrderKahn(compressed);
+        DAGShortestPath spFinder = new DAGShortestPath(new SimpleMetrics());
+
+        assertArrayEquals(spFinder.shortestPaths(csr, topoSort.topologicalOrderKahn(csr), 0),
+                spFinder.shortestPaths(compressed, order, 0));
+        assertArrayEquals(spFinder.longestPaths(csr, order, 0), spFinder.longestPaths(compressed, order, 0));
+        List<DAGShortestPath.CriticalPathResult> expected = spFinder.findTopCriticalPaths(csr, 0, 20);
+        List<DAGShortestPath.CriticalPathResult> actual = spFinder.findTopCriticalPaths(compressed, 0, 20);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getLength(), actual.get(i).getLength());
+        }
+    }
+
+    @Test
+    public void testCursorResumesFromSavedPosition() {
+        CSRGraph csr = randomGraph(300, 3000, 20, false, 4);
+        CompressedGraph compressed = CompressedGraph.compress(csr);
+        NeighborCursor cursor = compressed.neighborCursor();
+        NeighborCursor reference = compressed.neighborCursor();
+
+        for (int u = 0; u < compressed.getVertexCount(); u++) {
+            // Stop at every edge, read another row in between, then finish from the saved position
+            for (int stop = 1; stop <= compressed.outDegree(u); stop++) {
+                cursor.reset(u);
+                for (int i = 0; i < stop; i++) {
+                    assertTrue(cursor.next());
+                }
+                long position = cursor.position();
+                cursor.reset((u + 1) % compressed.getVertexCount());
+                while (cursor.next()) {
+                    // discard
+                }
+                cursor.resume(u, position);
+                reference.reset(u);
+                for (int i = 0; i < stop; i++) {
+                    reference.next();
+                }
+                while (reference.next()) {
+                    assertTrue(cursor.next());
+                    assertEquals(reference.target(), cursor.target());
+                    assertEquals(reference.weight(), cursor.weight());
+                }
+                assertFalse(cursor.next());
+            }
+        }
+    }
+
+    @Test
+    public void testDFSTopologicalSortOnCompressedGraph() {
+        TopologicalSort topoSort = new TopologicalSort(new SimpleMetrics());
+        CompressedGraph dag = CompressedGraph.compress(randomGraph(400, 4000, 30, true, 7));
+        List<Integer> order = topoSort.topologicalOrderDFS(dag);
+        int[] position = new int[dag.getVertexCount()];
+        for (int i = 0; i < order.size(); i++) {
+            position[order.get(i)] = i;
+        }
+        for (int u = 0; u < dag.getVertexCount(); u++) {
+            for (int i = 0; i < dag.outDegree(u); i++) {
+                assertTrue(position[u] < position[dag.neighborAt(u, i)]);
+            }
+        }
+
+        CompressedGraph cyclic = CompressedGraph.compress(randomGraph(400, 4000, 30, false, 7));
+        TopoSortResult result = topoSort.topologicalSortDFS(cyclic);
+        assertFalse(result.isAcyclic());
+        List<Integer> cycle = result.getCycle();
+        for (int i = 0; i < cycle.size(); i++) {
+            assertTrue(cyclic.hasEdge(cycle.get(i), cycle.get((i + 1) % cycle.size())));
+        }
+    }
+
+    @Test
+    public void testSCCsAgreeWithCSR() {
+        CSRGraph csr = randomGraph(2000, 6000, 40, false, 6);
+        CompressedGraph compressed = CompressedGraph.compress(csr);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+
+        // Compressed rows are sorted by target, so DFS order and component numbering may differ
+        Set<Set<Integer>> expected = partition(finder.findSCCsTarjan(csr));
+        assertEquals(expected, partition(finder.findSCCsTarjan(compressed)));
+        assertEquals(expected, partition(finder.findSCCsKosaraju(compressed)));
+        assertEquals(expected, partition(finder.findSCCsParallel(compressed, 2)));
+        finder.setTrim(SCCFinder.Trim.SINGLETONS_AND_PAIRS);
+        assertEquals(expected, partition(finder.findSCCsTarjan(compressed)));
+        assertEquals(expected, partition(finder.findSCCsKosaraju(compressed)));
+    }
+
+    private static Set<Set<Integer>> partition(List<List<Integer>> sccs) {
+        Set<Set<Integer>> components = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            components.add(new HashSet<>(scc));
+        }
+        return components;
+    }
+
+    @Test
+    public void testLocalGraphIsSmallerThanCSR() {
+        CSRGraph csr = randomGraph(20000, 200000, 50, false, 9);
+        CompressedGraph compressed = CompressedGraph.compress(csr);
+
+        long csrBytes = 4L * (csr.getVertexCount() + 1 + 2L * csr.getEdgeCount());
+        assertTrue(compressed.byteSize() * 2 < csrBytes,
+                "compressed " + compressed.byteSize() + " bytes vs CSR " + csrBytes);
+    }
+}
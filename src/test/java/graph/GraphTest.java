@@ -1,5 +1,6 @@
 package graph;
 import graph.model.Graph;
+import graph.model.ReverseAdjacency;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,4 +28,40 @@ public class GraphTest {
         assertTrue(graph.getReverseNeighbors(1).contains(0));
         assertTrue(graph.getReverseNeighbors(2).contains(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRemoveEdge() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(0, 2, 9);
+
+        assertTrue(graph.removeEdge(0, 1));
+        assertFalse(graph.removeEdge(0, 1));
+        assertFalse(graph.hasEdge(0, 1));
+        assertFalse(graph.getNeighbors(0).contains(1));
+        assertFalse(graph.getReverseNeighbors(1).contains(0));
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(9, graph.getWeight(0, 2));
+
+        graph.addEdge(0, 1, 6);
+        assertEquals(6, graph.getWeight(0, 1));
+    }
+
+    @Test
+    public void testReverseStaysInSyncOnceBuilt() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        assertFalse(graph.hasReverseAdjacency());
+
+        assertTrue(graph.getReverseNeighbors(1).contains(0));
+        graph.addEdge(2, 1, 1);
+        graph.removeEdge(0, 1);
+        assertEquals(1, graph.inDegree(1));
+        assertEquals(2, graph.reverseNeighborAt(1, 0));
+
+        Graph withoutReverse = new Graph(2, ReverseAdjacency.DISABLED);
+        withoutReverse.addEdge(0, 1, 1);
+        assertThrows(IllegalStateException.class, () -> withoutReverse.getReverseNeighbors(1));
+    }
+}
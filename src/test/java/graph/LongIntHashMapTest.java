@@ -0,0 +1,43 @@
+package graph;
+import graph.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomUpdates() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            long key = LongIntHashMap.pack(random.nextInt(60), random.nextInt(60));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int u = 0; u < 60; u++) {
+            for (int v = 0; v < 60; v++) {
+                long key = LongIntHashMap.pack(u, v);
+                assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+            }
+        }
+    }
+
+    @Test
+    public void testPackRoundTrip() {
+        long key = LongIntHashMap.pack(123456, 7);
+        assertEquals(123456, LongIntHashMap.high(key));
+        assertEquals(7, LongIntHashMap.low(key));
+    }
+}
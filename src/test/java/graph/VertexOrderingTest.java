@@ -0,0 +1,71 @@
+package graph;
+import graph.model.CSRGraph;
+import graph.reorder.VertexOrdering;
+import graph.scc.SCCFinder;
+import metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import utils.GraphGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class VertexOrderingTest {
+
+    @Test
+    public void testEveryStrategyIsAPermutationPreservingEdges() {
+        CSRGraph graph = new GraphGenerator().generateCityGrid(12, 9, 0.4, true);
+
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            VertexOrdering ordering = VertexOrdering.compute(graph, strategy);
+            CSRGraph relabeled = ordering.apply(graph);
+
+            Set<Integer> seen = new HashSet<>();
+            for (int v = 0; v < graph.getVertexCount(); v++) {
+                assertEquals(v, ordering.toRelabeled(ordering.toOriginal(v)));
+                seen.add(ordering.toOriginal(v));
+            }
+            assertEquals(graph.getVertexCount(), seen.size());
+
+            assertEquals(graph.getEdgeCount(), relabeled.getEdgeCount());
+            for (int u = 0; u < graph.getVertexCount(); u++) {
+                for (int i = 0; i < graph.outDegree(u); i++) {
+                    int v = graph.neighborAt(u, i);
+                    assertEquals(graph.getWeight(u, v),
+                            relabeled.getWeight(ordering.toRelabeled(u), ordering.toRelabeled(v)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComponentsMapBackToOriginalIds() {
+        CSRGraph graph = new GraphGenerator().generateCityGrid(10, 10, 0.5, true);
+        VertexOrdering ordering = VertexOrdering.compute(graph, VertexOrdering.Strategy.RCM);
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+
+        Set<Set<Integer>> expected = asSets(finder.findSCCsTarjan(graph));
+        Set<Set<Integer>> mapped = asSets(ordering.componentsToOriginal(finder.findSCCsTarjan(ordering.apply(graph))));
+
+        assertEquals(expected, mapped);
+    }
+
+    @Test
+    public void testRcmRestoresLocalityOfScrambledGrid() {
+        CSRGraph grid = new GraphGenerator().generateCityGrid(60, 60, 0.3, false);
+        CSRGraph scrambled = VertexOrdering.random(grid.getVertexCount(), 1).apply(grid);
+        CSRGraph reordered = VertexOrdering.reverseCuthillMcKee(scrambled).apply(scrambled);
+
+        assertTrue(VertexOrdering.averageEdgeSpan(reordered) * 10 < VertexOrdering.averageEdgeSpan(scrambled));
+    }
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> components) {
+        Set<Set<Integer>> sets = new HashSet<>();
+        for (List<Integer> component : components) {
+            sets.add(new HashSet<>(new ArrayList<>(component)));
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,112 @@
+package utils;
+import graph.model.CSRGraph;
+import graph.model.IntGraph;
+import graph.scc.SCCFinder;
+import metrics.SimpleMetrics;
+import model.LoadedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class BinaryGraphLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteThenMapRoundTrip() throws Exception {
+        CSRGraph graph = new CSRGraph.Builder(5)
+                .addEdge(0, 1, 3)
+                .addEdge(1, 2, 4)
+                .addEdge(2, 0, 1)
+                .addEdge(2, 3, 7)
+                .addEdge(3, 4, 2)
+                .build();
+        String file = tempDir.resolve("graph.bin").toString();
+
+        BinaryGraphLoader.write(graph, 2, true, "edge", file);
+        LoadedGraph loaded = BinaryGraphLoader.load(file);
+        IntGraph mapped = loaded.getGraph();
+
+        assertEquals(2, loaded.getSource());
+        assertTrue(loaded.isDirected());
+        assertEquals("edge", loaded.getWeightModel());
+        assertEquals(5, mapped.getVertexCount());
+        assertEquals(5, mapped.getEdgeCount());
+        for (int u = 0; u < 5; u++) {
+            assertEquals(graph.outDegree(u), mapped.outDegree(u));
+            assertEquals(graph.inDegree(u), mapped.inDegree(u));
+            for (int i = 0; i < graph.outDegree(u); i++) {
+                assertEquals(graph.neighborAt(u, i), mapped.neighborAt(u, i));
+                assertEquals(graph.weightAt(u, i), mapped.weightAt(u, i));
+            }
+        }
+
+        SCCFinder finder = new SCCFinder(new SimpleMetrics());
+        assertEquals(finder.findSCCsKosaraju(graph), finder.findSCCsKosaraju(mapped));
+    }
+
+    @Test
+    public void testMappedTransposeIsBuiltOnDemandAndReleased() throws Exception {
+        CSRGraph graph = new CSRGraph.Builder(4)
+                .addEdge(0, 1, 1)
+                .addEdge(2, 1, 1)
+                .addEdge(1, 3, 1)
+                .build();
+        String file = tempDir.resolve("lazy.bin").toString();
+        BinaryGraphLoader.write(graph, 0, true, "edge", file);
+        IntGraph mapped = BinaryGraphLoader.load(file).getGraph();
+
+        assertFalse(mapped.hasReverseAdjacency());
+        assertEquals(2, mapped.inDegree(1));
+        assertTrue(mapped.hasReverseAdjacency());
+        mapped.releaseReverseAdjacency();
+        assertFalse(mapped.hasReverseAdjacency());
+        assertEquals(2, mapped.reverseNeighborAt(1, 1));
+
+        // Kosaraju frees a transpose it had to build itself
+        mapped.releaseReverseAdjacency();
+        new SCCFinder(new SimpleMetrics()).findSCCsKosaraju(mapped);
+        assertFalse(mapped.hasReverseAdjacency());
+    }
+
+    @Test
+    public void testRejectsNonBinaryFile() throws Exception {
+        Path file = tempDir.resolve("graph.json");
+        java.nio.file.Files.write(file, "{\"n\": 3, \"edges\": []}".getBytes());
+
+        assertThrows(java.io.IOException.class, () -> BinaryGraphLoader.load(file.toString()));
+    }
+
+    @Test
+    public void testRejectsCorruptOrTruncatedHeader() throws Exception {
+        CSRGraph graph = new CSRGraph.Builder(3).addEdge(0, 1, 2).addEdge(1, 2, 5).build();
+        Path file = tempDir.resolve("graph.bin");
+        BinaryGraphLoader.write(graph, 0, true, "edge", file.toString());
+        byte[] valid = Files.readAllBytes(file);
+
+        // Weight model length, vertex count and edge count, each negative or far beyond the file
+        int[][] patches = {{24, -1}, {24, Integer.MAX_VALUE}, {8, -5}, {8, Integer.MAX_VALUE},
+                {12, -1}, {12, 1 << 28}};
+        for (int[] patch : patches) {
+            byte[] corrupt = valid.clone();
+            ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(patch[0], patch[1]);
+            Files.write(file, corrupt);
+            assertThrows(IOException.class, () -> BinaryGraphLoader.load(file.toString()),
+                    "field at byte " + patch[0] + " = " + patch[1]);
+        }
+
+        Files.write(file, Arrays.copyOf(valid, valid.length - 4));
+        IOException e = assertThrows(IOException.class, () -> BinaryGraphLoader.load(file.toString()));
+        assertTrue(e.getMessage().contains("truncated"));
+        Files.write(file, Arrays.copyOf(valid, 10));
+        assertThrows(IOException.class, () -> BinaryGraphLoader.load(file.toString()));
+    }
+}
@@ -0,0 +1,77 @@
+package utils;
+import graph.model.IntGraph;
+import model.LoadedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JsonGraphLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStreamingLoadHandlesFieldsInAnyOrder() throws Exception {
+        Path file = tempDir.resolve("graph.json");
+        Files.write(file, ("{\"edges\": [{\"w\": 4, \"u\": 0, \"v\": 1}, {\"u\": 1, \"v\": 2, \"w\": 6, \"note\": [1, 2]}]," +
+                " \"extra\": {\"nested\": true}, \"weight_model\": \"edge\", \"source\": 1, \"n\": 3," +
+                " \"directed\": true}").getBytes());
+
+        LoadedGraph loaded = JsonGraphLoader.loadGraph(file.toString());
+        IntGraph graph = loaded.getGraph();
+
+        assertEquals(3, graph.getVertexCount());
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(1, loaded.getSource());
+        assertTrue(loaded.isDirected());
+        assertEquals("edge", loaded.getWeightModel());
+        assertEquals(4, graph.getWeight(0, 1));
+        assertEquals(6, graph.getWeight(1, 2));
+    }
+
+    @Test
+    public void testStreamingLoadMatchesObjectMapper() throws Exception {
+        Path file = tempDir.resolve("random.json");
+        JsonGraphLoader.mapper.writeValue(file.toFile(),
+                new GraphGenerator().generateRandomGraph("random", 20, 0.3, true));
+
+        IntGraph expected = JsonGraphLoader.convertToCSRGraph(JsonGraphLoader.loadGraphData(file.toString()));
+        IntGraph streamed = JsonGraphLoader.loadGraph(file.toString()).getGraph();
+
+        assertEquals(expected.getEdgeCount(), streamed.getEdgeCount());
+        for (int u = 0; u < expected.getVertexCount(); u++) {
+            assertEquals(expected.outDegree(u), streamed.outDegree(u));
+            for (int i = 0; i < expected.outDegree(u); i++) {
+                assertEquals(expected.neighborAt(u, i), streamed.neighborAt(u, i));
+                assertEquals(expected.weightAt(u, i), streamed.weightAt(u, i));
+            }
+        }
+    }
+
+    @Test
+    public void testMissingVertexCountIsRejected() throws Exception {
+        Path file = tempDir.resolve("bad.json");
+        Files.write(file, "{\"edges\": []}".getBytes());
+
+        assertThrows(java.io.IOException.class, () -> JsonGraphLoader.loadGraph(file.toString()));
+    }
+
+    @Test
+    public void testMalformedEdgesAreRejected() throws Exception {
+        String[] bad = {
+                "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1}, 5, {\"u\": 1, \"v\": 2}]}",
+                "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1}, [1, 2]]}",
+                "{\"n\": 3, \"edges\": [{\"u\": 0, \"w\": 1}]}",
+                "{\"n\": 3, \"edges\": [{\"v\": 2}]}",
+                "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1}"
+        };
+        Path file = tempDir.resolve("bad-edges.json");
+        for (String json : bad) {
+            Files.write(file, json.getBytes());
+            assertThrows(java.io.IOException.class, () -> JsonGraphLoader.loadGraph(file.toString()), json);
+        }
+    }
+}